@@ -5,19 +5,26 @@ import com.chimera.dto.RankingResponse;
 import com.chimera.service.CacheService;
 import com.chimera.service.OpenAIService;
 import com.chimera.service.RankingService;
+import com.chimera.service.cache.SemanticChatCache;
+import com.chimera.service.llm.LlmBudget;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -114,54 +121,138 @@ public class ChimeraMinimalApplication {
         }
     }
 
-    // Enhanced chat API with OpenAI integration
+    // Enhanced chat API with OpenAI integration - async, the servlet thread is released while the LLM answers
     @CrossOrigin(origins = {"http://localhost:3000", "http://10.0.2.2:8080", "http://127.0.0.1:*", "http://192.168.*.*:*"})
     @PostMapping("/api/chat")
-    public ResponseEntity<Map<String, Object>> chat(@RequestBody Map<String, Object> request) {
+    public Mono<ResponseEntity<Map<String, Object>>> chat(@RequestBody Map<String, Object> request) {
         try {
             String question = (String) request.getOrDefault("question", "");
             String assetId = (String) request.getOrDefault("assetId", "");
             
             if (question.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
+                return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "status", "error",
                     "message", "Question is required"
-                ));
+                )));
             }
             
             logger.info("Processing chat request for asset: {}, question: {}", assetId, question);
             
             // Generate response using OpenAI service
-            OpenAIService.ChatResponse chatResponse = openAIService.generateExplanation(assetId, question, "");
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", chatResponse.getStatus());
-            response.put("answer", chatResponse.getAnswer());
-            response.put("citations", List.of(
-                Map.of("source", "NSE Bhavcopy", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "End of Day Prices"),
-                Map.of("source", "AMFI NAV", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Mutual Fund Net Asset Values"),
-                Map.of("source", "Reuters News Feed", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Market Analysis & Company Updates")
-            ));
-            response.put("confidence", chatResponse.getConfidence());
-            response.put("lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST");
-            response.put("disclaimer", chatResponse.getDisclaimer());
-            
-            return ResponseEntity.ok(response);
+            return openAIService.generateExplanationAsync(assetId, question, "")
+                    .map(chatResponse -> {
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("status", chatResponse.getStatus());
+                        response.put("answer", chatResponse.getAnswer());
+                        response.put("citations", List.of(
+                            Map.of("source", "NSE Bhavcopy", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "End of Day Prices"),
+                            Map.of("source", "AMFI NAV", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Mutual Fund Net Asset Values"),
+                            Map.of("source", "Reuters News Feed", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Market Analysis & Company Updates")
+                        ));
+                        response.put("confidence", chatResponse.getConfidence());
+                        response.put("lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST");
+                        response.put("disclaimer", chatResponse.getDisclaimer());
+                        return ResponseEntity.ok(response);
+                    })
+                    .onErrorResume(e -> {
+                        logger.error("Error processing chat request: ", e);
+                        return Mono.just(ResponseEntity.ok(createFallbackChatResponse(question)));
+                    });
             
         } catch (Exception e) {
             logger.error("Error processing chat request: ", e);
             
             Map<String, Object> fallbackResponse = createFallbackChatResponse((String) request.getOrDefault("question", ""));
-            return ResponseEntity.ok(fallbackResponse);
+            return Mono.just(ResponseEntity.ok(fallbackResponse));
+        }
+    }
+    
+    // Streaming chat - answer text arrives as "delta" events, citations and disclaimer in the final "done" event
+    @CrossOrigin(origins = {"http://localhost:3000", "http://10.0.2.2:8080", "http://127.0.0.1:*", "http://192.168.*.*:*"})
+    @PostMapping(value = "/api/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> chatStream(@RequestBody Map<String, Object> request) {
+        String question = (String) request.getOrDefault("question", "");
+        String assetId = (String) request.getOrDefault("assetId", "");
+        
+        if (question.trim().isEmpty()) {
+            return Flux.just(ServerSentEvent.<Map<String, Object>>builder()
+                .event("error")
+                .data(Map.of("status", "error", "message", "Question is required"))
+                .build());
         }
+        
+        logger.info("Processing streaming chat request for asset: {}, question: {}", assetId, question);
+        
+        return openAIService.streamExplanation(assetId, question, "")
+                .map(event -> {
+                    if (!event.isDone()) {
+                        return ServerSentEvent.<Map<String, Object>>builder()
+                            .event("delta")
+                            .data(Map.of("text", event.getDelta()))
+                            .build();
+                    }
+                    OpenAIService.ChatResponse chatResponse = event.getResponse();
+                    return ServerSentEvent.<Map<String, Object>>builder()
+                        .event("done")
+                        .data(Map.of(
+                            "status", chatResponse.getStatus(),
+                            "answer", chatResponse.getAnswer(),
+                            "citations", List.of(chatResponse.getCitations()),
+                            "confidence", chatResponse.getConfidence(),
+                            "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST",
+                            "disclaimer", chatResponse.getDisclaimer()
+                        ))
+                        .build();
+                });
+    }
+    
+    // Batched explanations for several symbols of one ranking - answered by one multi-answer completion
+    @CrossOrigin(origins = {"http://localhost:3000", "http://10.0.2.2:8080", "http://127.0.0.1:*", "http://192.168.*.*:*"})
+    @PostMapping("/api/chat/batch")
+    public Mono<ResponseEntity<Map<String, Object>>> chatBatch(@RequestBody Map<String, Object> request) {
+        Object rawAssetIds = request.get("assetIds");
+        String question = (String) request.getOrDefault("question", "Why is this asset ranked here?");
+        
+        if (!(rawAssetIds instanceof List<?> ids) || ids.isEmpty() || ids.size() > 20) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "assetIds must list 1-20 symbols"
+            )));
+        }
+        List<String> assetIds = ids.stream().map(String::valueOf).toList();
+        
+        logger.info("Processing batched chat request for {} assets", assetIds.size());
+        
+        return openAIService.generateExplanations(assetIds, question, "")
+                .map(answers -> {
+                    List<Map<String, Object>> items = new ArrayList<>();
+                    for (int i = 0; i < assetIds.size(); i++) {
+                        OpenAIService.ChatResponse chatResponse = answers.get(i);
+                        items.add(Map.of(
+                            "assetId", assetIds.get(i),
+                            "status", chatResponse.getStatus(),
+                            "answer", chatResponse.getAnswer(),
+                            "citations", List.of(chatResponse.getCitations()),
+                            "confidence", chatResponse.getConfidence(),
+                            "disclaimer", chatResponse.getDisclaimer()
+                        ));
+                    }
+                    Map<String, Object> response = Map.of(
+                        "status", "success",
+                        "answers", items,
+                        "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST"
+                    );
+                    return ResponseEntity.ok(response);
+                });
     }
     
     // Utility endpoints
     @GetMapping("/api/usage")
     public ResponseEntity<Map<String, Object>> getUsageStats() {
         try {
-            OpenAIService.DailyUsageStats stats = openAIService.getDailyUsageStats();
+            LlmBudget.DailyUsageStats stats = openAIService.getDailyUsageStats();
             CacheService.CacheStats cacheStats = cacheService.getCacheStats();
+            SemanticChatCache.SemanticCacheStats semanticStats = openAIService.getSemanticCacheStats();
             
             return ResponseEntity.ok(Map.of(
                 "dailyUsage", String.format("$%.4f", stats.getDailyUsage()),
@@ -173,6 +264,11 @@ public class ChimeraMinimalApplication {
                     "totalKeys", cacheStats.getTotalKeys(),
                     "rankingCache", cacheStats.getRankingCacheSize(),
                     "chatCache", cacheStats.getChatCacheSize()
+                ),
+                "semanticCache", Map.of(
+                    "hitRatio", String.format("%.1f%%", semanticStats.getHitRatio() * 100),
+                    "similarHits", semanticStats.getSimilarHits(),
+                    "dollarsSaved", String.format("$%.4f", semanticStats.getDollarsSaved())
                 )
             ));
         } catch (Exception e) {
@@ -14,12 +14,17 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -104,75 +109,164 @@ public class ChimeraRailwayApplication {
         }
     }
     
-    // Chat endpoint - integrated with OpenAI
+    // Chat endpoint - integrated with OpenAI, served asynchronously so no request thread waits on the LLM
     @CrossOrigin(origins = {"*"})
     @PostMapping("/api/chat")
-    public ResponseEntity<Map<String, Object>> chat(@RequestBody Map<String, Object> request) {
+    public Mono<ResponseEntity<Map<String, Object>>> chat(@RequestBody Map<String, Object> request) {
         try {
             String question = (String) request.getOrDefault("question", "");
             String assetId = (String) request.getOrDefault("assetId", "");
             
             if (question.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
+                return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "status", "error",
                     "message", "Question is required"
-                ));
+                )));
             }
             
             logger.info("Processing chat request for asset: {}, question: {}", assetId, question);
             
-            // Use real OpenAI service if available
-            if (openAIService != null) {
-                try {
-                    OpenAIService.ChatResponse chatResponse = openAIService.generateExplanation(
+            // Fallback response when OpenAI service is not available
+            if (openAIService == null) {
+                return Mono.just(ResponseEntity.ok(createFallbackChatResponse()));
+            }
+            
+            return openAIService.generateExplanationAsync(
                         assetId.isEmpty() ? "GENERAL" : assetId, 
                         question, 
                         "Financial ranking analysis context"
-                    );
-                    
-                    Map<String, Object> response = Map.of(
-                        "status", chatResponse.getStatus(),
-                        "answer", chatResponse.getAnswer(),
-                        "citations", List.of(chatResponse.getCitations()),
-                        "confidence", chatResponse.getConfidence(),
-                        "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST",
-                        "disclaimer", chatResponse.getDisclaimer()
-                    );
-                    
-                    return ResponseEntity.ok(response);
-                    
-                } catch (Exception e) {
-                    logger.error("OpenAI service error, falling back to mock response: ", e);
-                    // Fall through to mock response
-                }
-            }
-            
-            // Fallback response when OpenAI service is not available or fails
-            Map<String, Object> response = Map.of(
-                "status", "fallback",
-                "answer", "This is an educational analysis based on our ranking system. " +
-                         "The ranking considers financial performance, market trends, and risk metrics. " +
-                         "This analysis is for educational purposes only and should not be considered as investment advice.",
-                "citations", List.of(
-                    Map.of("source", "NSE Bhavcopy", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Market Data"),
-                    Map.of("source", "AMFI NAV", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Mutual Fund Data"),
-                    Map.of("source", "RBI Database", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Economic Indicators")
-                ),
-                "confidence", 70,
-                "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST",
-                "disclaimer", "Fallback response - Educational purposes only. Not investment advice."
-            );
-            
-            return ResponseEntity.ok(response);
+                    )
+                    .map(chatResponse -> {
+                        Map<String, Object> response = Map.of(
+                            "status", chatResponse.getStatus(),
+                            "answer", chatResponse.getAnswer(),
+                            "citations", List.of(chatResponse.getCitations()),
+                            "confidence", chatResponse.getConfidence(),
+                            "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST",
+                            "disclaimer", chatResponse.getDisclaimer()
+                        );
+                        return ResponseEntity.ok(response);
+                    })
+                    .onErrorResume(e -> {
+                        logger.error("OpenAI service error, falling back to mock response: ", e);
+                        return Mono.just(ResponseEntity.ok(createFallbackChatResponse()));
+                    });
             
         } catch (Exception e) {
             logger.error("Error processing chat request: ", e);
-            return ResponseEntity.ok(Map.of(
+            return Mono.just(ResponseEntity.ok(Map.of(
                 "status", "error",
                 "message", "Chat service temporarily unavailable",
                 "disclaimer", "Educational purposes only. Not investment advice."
-            ));
+            )));
+        }
+    }
+    
+    // Streaming chat - answer text arrives as "delta" events, citations and disclaimer in the final "done" event
+    @CrossOrigin(origins = {"*"})
+    @PostMapping(value = "/api/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> chatStream(@RequestBody Map<String, Object> request) {
+        String question = (String) request.getOrDefault("question", "");
+        String assetId = (String) request.getOrDefault("assetId", "");
+        
+        if (question.trim().isEmpty()) {
+            return Flux.just(ServerSentEvent.<Map<String, Object>>builder()
+                .event("error")
+                .data(Map.of("status", "error", "message", "Question is required"))
+                .build());
+        }
+        
+        logger.info("Processing streaming chat request for asset: {}, question: {}", assetId, question);
+        
+        if (openAIService == null) {
+            return Flux.just(ServerSentEvent.<Map<String, Object>>builder()
+                .event("done")
+                .data(createFallbackChatResponse())
+                .build());
         }
+        
+        return openAIService.streamExplanation(assetId.isEmpty() ? "GENERAL" : assetId, question, "Financial ranking analysis context")
+                .map(event -> {
+                    if (!event.isDone()) {
+                        return ServerSentEvent.<Map<String, Object>>builder()
+                            .event("delta")
+                            .data(Map.of("text", event.getDelta()))
+                            .build();
+                    }
+                    OpenAIService.ChatResponse chatResponse = event.getResponse();
+                    return ServerSentEvent.<Map<String, Object>>builder()
+                        .event("done")
+                        .data(Map.of(
+                            "status", chatResponse.getStatus(),
+                            "answer", chatResponse.getAnswer(),
+                            "citations", List.of(chatResponse.getCitations()),
+                            "confidence", chatResponse.getConfidence(),
+                            "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST",
+                            "disclaimer", chatResponse.getDisclaimer()
+                        ))
+                        .build();
+                });
+    }
+    
+    // Batched explanations for several symbols of one ranking - answered by one multi-answer completion
+    @CrossOrigin(origins = {"*"})
+    @PostMapping("/api/chat/batch")
+    public Mono<ResponseEntity<Map<String, Object>>> chatBatch(@RequestBody Map<String, Object> request) {
+        Object rawAssetIds = request.get("assetIds");
+        String question = (String) request.getOrDefault("question", "Why is this asset ranked here?");
+        
+        if (!(rawAssetIds instanceof List<?> ids) || ids.isEmpty() || ids.size() > 20) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "assetIds must list 1-20 symbols"
+            )));
+        }
+        List<String> assetIds = ids.stream().map(String::valueOf).toList();
+        
+        logger.info("Processing batched chat request for {} assets", assetIds.size());
+        
+        if (openAIService == null) {
+            return Mono.just(ResponseEntity.ok(createFallbackChatResponse()));
+        }
+        
+        return openAIService.generateExplanations(assetIds, question, "Financial ranking analysis context")
+                .map(answers -> {
+                    List<Map<String, Object>> items = new ArrayList<>();
+                    for (int i = 0; i < assetIds.size(); i++) {
+                        OpenAIService.ChatResponse chatResponse = answers.get(i);
+                        items.add(Map.of(
+                            "assetId", assetIds.get(i),
+                            "status", chatResponse.getStatus(),
+                            "answer", chatResponse.getAnswer(),
+                            "citations", List.of(chatResponse.getCitations()),
+                            "confidence", chatResponse.getConfidence(),
+                            "disclaimer", chatResponse.getDisclaimer()
+                        ));
+                    }
+                    Map<String, Object> response = Map.of(
+                        "status", "success",
+                        "answers", items,
+                        "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST"
+                    );
+                    return ResponseEntity.ok(response);
+                });
+    }
+    
+    private Map<String, Object> createFallbackChatResponse() {
+        return Map.of(
+            "status", "fallback",
+            "answer", "This is an educational analysis based on our ranking system. " +
+                     "The ranking considers financial performance, market trends, and risk metrics. " +
+                     "This analysis is for educational purposes only and should not be considered as investment advice.",
+            "citations", List.of(
+                Map.of("source", "NSE Bhavcopy", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Market Data"),
+                Map.of("source", "AMFI NAV", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Mutual Fund Data"),
+                Map.of("source", "RBI Database", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Economic Indicators")
+            ),
+            "confidence", 70,
+            "lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST",
+            "disclaimer", "Fallback response - Educational purposes only. Not investment advice."
+        );
     }
     
     private RankingResponse createMockRankingResponse() {
@@ -1,6 +1,8 @@
 package com.chimera;
 
-import com.chimera.service.StandaloneOpenAIService;
+import com.chimera.service.OpenAIService;
+import com.chimera.service.cache.SemanticChatCache;
+import com.chimera.service.llm.LlmBudget;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +14,7 @@ import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -38,7 +41,7 @@ public class ChimeraStandaloneApplication {
     private static final Logger logger = LoggerFactory.getLogger(ChimeraStandaloneApplication.class);
     
     @Autowired(required = false)
-    private StandaloneOpenAIService openAIService;
+    private OpenAIService openAIService;
     
     public static void main(String[] args) {
         SpringApplication.run(ChimeraStandaloneApplication.class, args);
@@ -127,57 +130,58 @@ public class ChimeraStandaloneApplication {
         }
     }
     
-    // Enhanced chat API with OpenAI integration
+    // Enhanced chat API with OpenAI integration - async, no request thread waits on the LLM
     @CrossOrigin(origins = {"*"})
     @PostMapping("/api/chat")
-    public ResponseEntity<Map<String, Object>> chat(@RequestBody Map<String, Object> request) {
+    public Mono<ResponseEntity<Map<String, Object>>> chat(@RequestBody Map<String, Object> request) {
         try {
             String question = (String) request.getOrDefault("question", "");
             String assetId = (String) request.getOrDefault("assetId", "");
             
             if (question.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
+                return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "status", "error",
                     "message", "Question is required"
-                ));
+                )));
             }
             
             logger.info("Processing chat request for asset: {}, question: {}", assetId, question);
             
-            Map<String, Object> response = new HashMap<>();
-            
+            Mono<Map<String, Object>> answer;
             if (openAIService != null) {
                 // Use OpenAI service if available
-                try {
-                    StandaloneOpenAIService.ChatResponse chatResponse = openAIService.generateExplanation(assetId, question, "");
-                    
-                    response.put("status", chatResponse.getStatus());
-                    response.put("answer", chatResponse.getAnswer());
-                    response.put("confidence", chatResponse.getConfidence());
-                    response.put("disclaimer", chatResponse.getDisclaimer());
-                    
-                } catch (Exception e) {
-                    logger.error("OpenAI service error, using fallback: ", e);
-                    response = createIntelligentFallbackResponse(question, assetId);
-                }
+                answer = openAIService.generateExplanationAsync(assetId, question, "")
+                        .map(chatResponse -> {
+                            Map<String, Object> response = new HashMap<>();
+                            response.put("status", chatResponse.getStatus());
+                            response.put("answer", chatResponse.getAnswer());
+                            response.put("confidence", chatResponse.getConfidence());
+                            response.put("disclaimer", chatResponse.getDisclaimer());
+                            return response;
+                        })
+                        .onErrorResume(e -> {
+                            logger.error("OpenAI service error, using fallback: ", e);
+                            return Mono.just(new HashMap<>(createIntelligentFallbackResponse(question, assetId)));
+                        });
             } else {
                 // Fallback to intelligent mock responses
-                response = createIntelligentFallbackResponse(question, assetId);
+                answer = Mono.just(new HashMap<>(createIntelligentFallbackResponse(question, assetId)));
             }
             
-            // Add common response fields
-            response.put("citations", List.of(
-                Map.of("source", "NSE Bhavcopy", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "End of Day Prices"),
-                Map.of("source", "AMFI NAV", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Mutual Fund Net Asset Values"),
-                Map.of("source", "Market Analysis", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Educational Research")
-            ));
-            response.put("lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST");
-            
-            return ResponseEntity.ok(response);
+            return answer.map(response -> {
+                // Add common response fields
+                response.put("citations", List.of(
+                    Map.of("source", "NSE Bhavcopy", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "End of Day Prices"),
+                    Map.of("source", "AMFI NAV", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Mutual Fund Net Asset Values"),
+                    Map.of("source", "Market Analysis", "date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), "title", "Educational Research")
+                ));
+                response.put("lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST");
+                return ResponseEntity.ok(response);
+            });
             
         } catch (Exception e) {
             logger.error("Error processing chat request: ", e);
-            return ResponseEntity.ok(createErrorResponse("Chat service temporarily unavailable"));
+            return Mono.just(ResponseEntity.ok(createErrorResponse("Chat service temporarily unavailable")));
         }
     }
     
@@ -186,7 +190,8 @@ public class ChimeraStandaloneApplication {
     public ResponseEntity<Map<String, Object>> getUsageStats() {
         try {
             if (openAIService != null) {
-                StandaloneOpenAIService.DailyUsageStats stats = openAIService.getDailyUsageStats();
+                LlmBudget.DailyUsageStats stats = openAIService.getDailyUsageStats();
+                SemanticChatCache.SemanticCacheStats semanticStats = openAIService.getSemanticCacheStats();
                 
                 return ResponseEntity.ok(Map.of(
                     "dailyUsage", String.format("$%.4f", stats.getDailyUsage()),
@@ -196,7 +201,12 @@ public class ChimeraStandaloneApplication {
                     "isNearLimit", stats.isNearLimit(),
                     "isOverLimit", stats.isOverLimit(),
                     "status", stats.isOverLimit() ? "BUDGET_EXCEEDED" : stats.isNearLimit() ? "NEAR_LIMIT" : "OK",
-                    "recommendation", stats.isOverLimit() ? "Using fallback responses" : "OpenAI active"
+                    "recommendation", stats.isOverLimit() ? "Using fallback responses" : "OpenAI active",
+                    "semanticCache", Map.of(
+                        "hitRatio", String.format("%.1f%%", semanticStats.getHitRatio() * 100),
+                        "similarHits", semanticStats.getSimilarHits(),
+                        "dollarsSaved", String.format("$%.4f", semanticStats.getDollarsSaved())
+                    )
                 ));
             } else {
                 return ResponseEntity.ok(Map.of(
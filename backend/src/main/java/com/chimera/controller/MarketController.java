@@ -0,0 +1,78 @@
+package com.chimera.controller;
+
+import com.chimera.model.Instrument;
+import com.chimera.service.AssetSimilarityService;
+import com.chimera.service.InstrumentMasterService;
+import com.chimera.service.MarketSummaryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Market overview endpoints, served from the precomputed daily summary (see MarketSummaryService),
+ * similar-asset lookups over the per-snapshot embeddings (see AssetSimilarityService) and
+ * instrument reference data from the cached instrument master (see InstrumentMasterService).
+ */
+@RestController
+@RequestMapping("/api/market")
+public class MarketController {
+
+    private final MarketSummaryService marketSummaryService;
+    private final AssetSimilarityService assetSimilarityService;
+    private final InstrumentMasterService instrumentMasterService;
+
+    public MarketController(MarketSummaryService marketSummaryService, AssetSimilarityService assetSimilarityService,
+                            InstrumentMasterService instrumentMasterService) {
+        this.marketSummaryService = marketSummaryService;
+        this.assetSimilarityService = assetSimilarityService;
+        this.instrumentMasterService = instrumentMasterService;
+    }
+
+    /**
+     * Breadth, averages and top movers for the latest trade date, or for ?date=YYYY-MM-DD
+     */
+    @GetMapping("/overview")
+    public ResponseEntity<MarketSummaryService.MarketOverview> overview(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        if (date == null) {
+            return ResponseEntity.ok(marketSummaryService.getOverview());
+        }
+        return marketSummaryService.getOverview(date)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Assets whose recent returns, volatility, size and sector are closest to the symbol's;
+     * 503 until the first embedding index has been built
+     */
+    @GetMapping("/similar/{symbol}")
+    public ResponseEntity<List<AssetSimilarityService.SimilarAsset>> similar(
+            @PathVariable String symbol, @RequestParam(defaultValue = "10") int limit) {
+        if (!assetSimilarityService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return assetSimilarityService.findSimilar(symbol.toUpperCase(), limit)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Name, asset type, sector and series of an equity symbol or mutual fund scheme code
+     */
+    @GetMapping("/instruments/{symbol}")
+    public ResponseEntity<Instrument> instrument(@PathVariable String symbol) {
+        return instrumentMasterService.getInstrument(symbol.toUpperCase())
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
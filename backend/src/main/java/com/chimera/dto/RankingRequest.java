@@ -65,6 +65,24 @@ public class RankingRequest {
             amountInr.toString(), horizonDays, riskPreference, assetType, maxResults);
     }
     
+    /**
+     * Compact, reversible encoding of the request parameters used to track popular request buckets
+     */
+    public String getBucketKey() {
+        return amountInr + "|" + horizonDays + "|" + riskPreference + "|" + assetType + "|" + maxResults;
+    }
+    
+    public static RankingRequest fromBucketKey(String bucketKey) {
+        String[] parts = bucketKey.split("\\|");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Invalid ranking bucket key: " + bucketKey);
+        }
+        RankingRequest request = new RankingRequest(Double.valueOf(parts[0]), Integer.valueOf(parts[1]), parts[2]);
+        request.setAssetType(parts[3]);
+        request.setMaxResults(Integer.valueOf(parts[4]));
+        return request;
+    }
+    
     public boolean isShortTerm() { return horizonDays <= 90; }
     public boolean isMediumTerm() { return horizonDays > 90 && horizonDays <= 540; }
     public boolean isLongTerm() { return horizonDays > 540; }
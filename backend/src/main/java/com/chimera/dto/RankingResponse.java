@@ -124,6 +124,18 @@ public class RankingResponse {
         @JsonProperty("cacheHit")
         private Boolean cacheHit = false;
         
+        // Seconds since the returned rankings were computed (0 for a fresh computation)
+        @JsonProperty("dataAgeSeconds")
+        private Long dataAgeSeconds = 0L;
+        
+        // True when served past the soft TTL while a background refresh runs
+        @JsonProperty("stale")
+        private Boolean stale = false;
+        
+        // Ingestion snapshot the rankings were computed from
+        @JsonProperty("snapshotVersion")
+        private Long snapshotVersion;
+        
         // Constructors
         public RankingMetadata() {
             this.lastUpdated = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " IST";
@@ -159,6 +171,30 @@ public class RankingResponse {
         
         public Boolean getCacheHit() { return cacheHit; }
         public void setCacheHit(Boolean cacheHit) { this.cacheHit = cacheHit; }
+        
+        public Long getDataAgeSeconds() { return dataAgeSeconds; }
+        public void setDataAgeSeconds(Long dataAgeSeconds) { this.dataAgeSeconds = dataAgeSeconds; }
+        
+        public Boolean getStale() { return stale; }
+        public void setStale(Boolean stale) { this.stale = stale; }
+        
+        public Long getSnapshotVersion() { return snapshotVersion; }
+        public void setSnapshotVersion(Long snapshotVersion) { this.snapshotVersion = snapshotVersion; }
+        
+        public RankingMetadata copy() {
+            RankingMetadata copy = new RankingMetadata();
+            copy.totalAssets = totalAssets;
+            copy.displayedAssets = displayedAssets;
+            copy.lastUpdated = lastUpdated;
+            copy.dataSource = dataSource;
+            copy.disclaimer = disclaimer;
+            copy.processingTimeMs = processingTimeMs;
+            copy.cacheHit = cacheHit;
+            copy.dataAgeSeconds = dataAgeSeconds;
+            copy.stale = stale;
+            copy.snapshotVersion = snapshotVersion;
+            return copy;
+        }
     }
     
     @Override
@@ -1,61 +1,35 @@
 package com.chimera.model;
 
-import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
-@Entity
-@Table(name = "asset_rankings")
+/**
+ * One ranked asset of a ranking response; built per request from the shared ranking in
+ * RankingSnapshotStore and not persisted itself
+ */
 public class AssetRanking {
     
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    
-    @Column(nullable = false)
     private String symbol;
-    
-    @Column(nullable = false)
     private String name;
-    
-    @Column(nullable = false)
     private Double score;
-    
-    @Column(nullable = false)
     private Integer confidence;
-    
-    @Column(nullable = false)
     private Integer rank;
-    
-    @Column(nullable = false)
     private String recommendation;
-    
-    @Column(name = "last_price")
     private Double lastPrice;
-    
-    @Column(name = "price_change")
     private String change;
-    
-    @Enumerated(EnumType.STRING)
-    @Column(name = "asset_type")
     private AssetType assetType = AssetType.EQUITY;
-    
-    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
-    
-    @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
     // Request context for caching
-    @Column(name = "request_amount")
     private Double requestAmount;
-    
-    @Column(name = "request_horizon_days")
     private Integer requestHorizonDays;
-    
-    @Column(name = "request_risk_preference")
     private String requestRiskPreference;
     
+    // Ingestion snapshot the ranking was computed from
+    private Long snapshotVersion;
+    
     // Constructors
     public AssetRanking() {
         this.createdAt = LocalDateTime.now();
@@ -118,10 +92,8 @@ public class AssetRanking {
     public String getRequestRiskPreference() { return requestRiskPreference; }
     public void setRequestRiskPreference(String requestRiskPreference) { this.requestRiskPreference = requestRiskPreference; }
     
-    @PreUpdate
-    public void preUpdate() {
-        this.updatedAt = LocalDateTime.now();
-    }
+    public Long getSnapshotVersion() { return snapshotVersion; }
+    public void setSnapshotVersion(Long snapshotVersion) { this.snapshotVersion = snapshotVersion; }
     
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,101 @@
+package com.chimera.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Instrument master: reference data per equity symbol or AMFI scheme code. Changes rarely, so
+ * entities live in the "instrument-master" second-level cache region; the rows are written by
+ * InstrumentMasterService, which evicts the region whenever the master changes.
+ */
+@Entity
+@Table(name = "instruments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Instrument.CACHE_REGION)
+public class Instrument {
+    
+    public static final String CACHE_REGION = "instrument-master";
+    
+    // NSE symbol, or scheme code for mutual funds (numeric, never clashes with a symbol)
+    @Id
+    @Column(length = 20)
+    private String symbol;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "asset_type", nullable = false, length = 20)
+    private AssetType assetType;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Column(length = 50)
+    private String sector;
+    
+    @Column(length = 50)
+    private String series;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public Instrument() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public Instrument(String symbol, AssetType assetType, String name) {
+        this();
+        this.symbol = symbol;
+        this.assetType = assetType;
+        this.name = name;
+    }
+    
+    // Getters and Setters
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    
+    public AssetType getAssetType() { return assetType; }
+    public void setAssetType(AssetType assetType) { this.assetType = assetType; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getSector() { return sector; }
+    public void setSector(String sector) { this.sector = sector; }
+    
+    public String getSeries() { return series; }
+    public void setSeries(String series) { this.series = series; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Instrument that = (Instrument) o;
+        return Objects.equals(symbol, that.symbol);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(symbol);
+    }
+    
+    @Override
+    public String toString() {
+        return "Instrument{" +
+                "symbol='" + symbol + '\'' +
+                ", assetType=" + assetType +
+                ", name='" + name + '\'' +
+                ", sector='" + sector + '\'' +
+                '}';
+    }
+}
@@ -1,27 +1,41 @@
 package com.chimera.repository;
 
 import com.chimera.model.EquityData;
+import com.chimera.repository.projection.EquityPriceView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Query methods run in read-only transactions (no flush, read-only Hibernate session);
+ * price history and market movers return EquityPriceView projections instead of managed
+ * entities. Writes go through the inherited save methods, which keep their own transactions.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface EquityDataRepository extends JpaRepository<EquityData, Long> {
     
+    String ACTIVE_SYMBOLS_CACHE_REGION = "active-symbols";
+    
     // Find latest price for a symbol
     Optional<EquityData> findTopBySymbolOrderByTradeDateDesc(String symbol);
     
     // Find all data for a symbol within date range
-    @Query("SELECT ed FROM EquityData ed WHERE ed.symbol = :symbol AND " +
+    @Query("SELECT new com.chimera.repository.projection.EquityPriceView(" +
+           "ed.symbol, ed.name, ed.sector, ed.tradeDate, ed.closePrice, ed.prevClose, ed.totalTradedQuantity) " +
+           "FROM EquityData ed WHERE ed.symbol = :symbol AND " +
            "ed.tradeDate BETWEEN :startDate AND :endDate ORDER BY ed.tradeDate DESC")
-    List<EquityData> findBySymbolAndDateRange(@Param("symbol") String symbol,
-                                             @Param("startDate") LocalDate startDate,
-                                             @Param("endDate") LocalDate endDate);
+    List<EquityPriceView> findBySymbolAndDateRange(@Param("symbol") String symbol,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
     
     // Find all symbols for a specific date
     List<EquityData> findByTradeDateOrderBySymbolAsc(LocalDate tradeDate);
@@ -30,36 +44,49 @@ public interface EquityDataRepository extends JpaRepository<EquityData, Long> {
     @Query("SELECT MAX(ed.tradeDate) FROM EquityData ed")
     LocalDate findLatestTradingDate();
     
-    // Find symbols with data in the last N days
+    // Find symbols with data in the last N days; results are kept in the query cache until the
+    // next ingestion snapshot evicts the region (see InstrumentMasterService)
     @Query("SELECT DISTINCT ed.symbol FROM EquityData ed WHERE ed.tradeDate >= :since ORDER BY ed.symbol")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = ACTIVE_SYMBOLS_CACHE_REGION)
+    })
     List<String> findActiveSymbolsSince(@Param("since") LocalDate since);
     
     // Find price history for multiple symbols
-    @Query("SELECT ed FROM EquityData ed WHERE ed.symbol IN :symbols AND " +
+    @Query("SELECT new com.chimera.repository.projection.EquityPriceView(" +
+           "ed.symbol, ed.name, ed.sector, ed.tradeDate, ed.closePrice, ed.prevClose, ed.totalTradedQuantity) " +
+           "FROM EquityData ed WHERE ed.symbol IN :symbols AND " +
            "ed.tradeDate BETWEEN :startDate AND :endDate ORDER BY ed.symbol, ed.tradeDate DESC")
-    List<EquityData> findBySymbolsAndDateRange(@Param("symbols") List<String> symbols,
-                                              @Param("startDate") LocalDate startDate,
-                                              @Param("endDate") LocalDate endDate);
+    List<EquityPriceView> findBySymbolsAndDateRange(@Param("symbols") List<String> symbols,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
     
     // Get top performing stocks by daily return
-    @Query("SELECT ed FROM EquityData ed WHERE ed.tradeDate = :date AND " +
+    @Query("SELECT new com.chimera.repository.projection.EquityPriceView(" +
+           "ed.symbol, ed.name, ed.sector, ed.tradeDate, ed.closePrice, ed.prevClose, ed.totalTradedQuantity) " +
+           "FROM EquityData ed WHERE ed.tradeDate = :date AND " +
            "ed.prevClose IS NOT NULL AND ed.prevClose > 0 AND " +
            "((ed.closePrice - ed.prevClose) / ed.prevClose) > 0 " +
            "ORDER BY ((ed.closePrice - ed.prevClose) / ed.prevClose) DESC")
-    List<EquityData> findTopGainersByDate(@Param("date") LocalDate date);
+    List<EquityPriceView> findTopGainersByDate(@Param("date") LocalDate date);
     
     // Get worst performing stocks by daily return
-    @Query("SELECT ed FROM EquityData ed WHERE ed.tradeDate = :date AND " +
+    @Query("SELECT new com.chimera.repository.projection.EquityPriceView(" +
+           "ed.symbol, ed.name, ed.sector, ed.tradeDate, ed.closePrice, ed.prevClose, ed.totalTradedQuantity) " +
+           "FROM EquityData ed WHERE ed.tradeDate = :date AND " +
            "ed.prevClose IS NOT NULL AND ed.prevClose > 0 AND " +
            "((ed.closePrice - ed.prevClose) / ed.prevClose) < 0 " +
            "ORDER BY ((ed.closePrice - ed.prevClose) / ed.prevClose) ASC")
-    List<EquityData> findTopLosersByDate(@Param("date") LocalDate date);
+    List<EquityPriceView> findTopLosersByDate(@Param("date") LocalDate date);
     
     // Find high volume stocks
-    @Query("SELECT ed FROM EquityData ed WHERE ed.tradeDate = :date AND " +
+    @Query("SELECT new com.chimera.repository.projection.EquityPriceView(" +
+           "ed.symbol, ed.name, ed.sector, ed.tradeDate, ed.closePrice, ed.prevClose, ed.totalTradedQuantity) " +
+           "FROM EquityData ed WHERE ed.tradeDate = :date AND " +
            "ed.totalTradedQuantity IS NOT NULL " +
            "ORDER BY ed.totalTradedQuantity DESC")
-    List<EquityData> findHighVolumeStocks(@Param("date") LocalDate date);
+    List<EquityPriceView> findHighVolumeStocks(@Param("date") LocalDate date);
     
     // Get market statistics for a date
     @Query("SELECT COUNT(ed), AVG(ed.closePrice), AVG(ed.totalTradedQuantity) " +
@@ -0,0 +1,15 @@
+package com.chimera.repository;
+
+import com.chimera.model.Instrument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Instrument master lookups; findById is served from the "instrument-master" second-level
+ * cache region. Rows are maintained by InstrumentMasterService.
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface InstrumentRepository extends JpaRepository<Instrument, String> {
+}
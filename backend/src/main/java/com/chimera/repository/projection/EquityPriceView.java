@@ -0,0 +1,30 @@
+package com.chimera.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only view of one end-of-day price row, for price history and market movers.
+ *
+ * Built by a JPQL constructor expression, so Hibernate returns plain objects: nothing is
+ * added to the persistence context, snapshotted or dirty-checked at flush.
+ */
+public record EquityPriceView(
+    String symbol,
+    String name,
+    String sector,
+    LocalDate tradeDate,
+    Double closePrice,
+    Double prevClose,
+    Long totalTradedQuantity
+) {
+
+    /**
+     * Daily return as a fraction, or null without a previous close
+     */
+    public Double dailyReturn() {
+        if (prevClose == null || prevClose <= 0 || closePrice == null) {
+            return null;
+        }
+        return (closePrice - prevClose) / prevClose;
+    }
+}
@@ -0,0 +1,539 @@
+package com.chimera.service;
+
+import com.chimera.service.concurrent.TaskExecutors;
+import com.pgvector.PGvector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * "Similar assets" by nearest neighbours over feature embeddings.
+ *
+ * Each equity is embedded once per ingestion snapshot as a 16-dimensional vector: eight rolling
+ * features (1/5/20/60-day returns, 20/60-day volatility, drawdown from the 60-day high and log
+ * traded value), each standardised across the universe, followed by the sector hashed into
+ * eight buckets. Features come from equity_data over lookback-days, or from the in-memory
+ * ingestion snapshot (one day of data, no sector) when equity_data has no rows or its latest
+ * trade date is older than the snapshot.
+ *
+ * With pgvector (V6__asset_embeddings.sql) vectors are stored in asset_embeddings and queries
+ * use its HNSW cosine index. Without it (no-database profiles, plain Postgres) or when a query
+ * fails, a brute-force scan over the in-memory copy answers instead.
+ *
+ * The index is rebuilt for each snapshot and, if no snapshot has been published yet, once
+ * the application is ready. Every build runs on the single "asset-embeddings" thread, which
+ * also serialises them - neither the request thread that triggered ingestion nor the
+ * ingestion lock waits for the feature scan and upsert. Until the first index exists
+ * isReady() is false.
+ */
+@Service
+public class AssetSimilarityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetSimilarityService.class);
+
+    private static final int DIMENSIONS = 16;
+    private static final int NUMERIC_FEATURES = 8;
+    private static final int SECTOR_BUCKETS = DIMENSIONS - NUMERIC_FEATURES;
+
+    @Value("${chimera.similarity.lookback-days:90}")
+    private int lookbackDays;
+
+    @Value("${chimera.similarity.sector-weight:1.0}")
+    private double sectorWeight;
+
+    @Value("${chimera.similarity.max-results:50}")
+    private int maxResults;
+
+    private final DataIngestionService dataIngestionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final AtomicBoolean building = new AtomicBoolean(false);
+    // Newest published snapshot; queued rebuilds for older or already indexed ones are skipped
+    private final AtomicLong latestSnapshot = new AtomicLong();
+
+    private volatile boolean pgvectorAvailable;
+    // Latest index, replaced as a whole on each rebuild
+    private volatile EmbeddingIndex index;
+
+    public AssetSimilarityService(DataIngestionService dataIngestionService,
+                                  ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
+                                  ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                  TaskExecutors taskExecutors) {
+        this.dataIngestionService = dataIngestionService;
+        this.jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        this.executor = taskExecutors.newSingleThreadExecutor("asset-embeddings");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (jdbcTemplate != null) {
+            try {
+                pgvectorAvailable = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('asset_embeddings') IS NOT NULL", Boolean.class);
+            } catch (Exception e) {
+                logger.warn("Could not check for asset_embeddings: {}", e.getMessage());
+            }
+        }
+        logger.info("Asset similarity served from {}", pgvectorAvailable ? "pgvector" : "memory");
+        buildInBackground();
+    }
+
+    /**
+     * Whether an index exists to answer from; when not, makes sure one is being built
+     */
+    public boolean isReady() {
+        if (index == null) {
+            buildInBackground();
+            return false;
+        }
+        return true;
+    }
+
+    private void buildInBackground() {
+        if (index != null || !building.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                if (index == null) {
+                    rebuild(dataIngestionService.getSnapshotVersion());
+                }
+            } catch (Exception e) {
+                logger.error("Error building asset embeddings: ", e);
+            } finally {
+                building.set(false);
+            }
+        });
+    }
+
+    @EventListener
+    public void onSnapshotPublished(DataIngestionService.SnapshotPublishedEvent event) {
+        long snapshotVersion = event.getSnapshotVersion();
+        latestSnapshot.set(snapshotVersion);
+        executor.execute(() -> {
+            EmbeddingIndex current = index;
+            if (snapshotVersion != latestSnapshot.get()
+                    || (current != null && current.snapshotVersion == snapshotVersion)) {
+                return;
+            }
+            try {
+                rebuild(snapshotVersion);
+            } catch (Exception e) {
+                logger.error("Error rebuilding asset embeddings for snapshot {}: ", snapshotVersion, e);
+            }
+        });
+    }
+
+    /**
+     * Recompute all embeddings and replace the stored and in-memory index; only runs on the
+     * asset-embeddings executor
+     */
+    private void rebuild(long snapshotVersion) {
+        long startTime = System.currentTimeMillis();
+        List<AssetFeatures> features = null;
+        String source = "equity_data";
+
+        if (jdbcTemplate != null) {
+            try {
+                features = loadRollingFeatures();
+            } catch (Exception e) {
+                logger.warn("Error loading rolling features from equity_data: {}", e.getMessage());
+            }
+        }
+        if (features == null || features.isEmpty()) {
+            features = fromSnapshot(dataIngestionService.getAllEquities());
+            source = "snapshot";
+        }
+
+        EmbeddingIndex built = embed(features, snapshotVersion);
+        if (pgvectorAvailable) {
+            try {
+                store(built);
+            } catch (Exception e) {
+                logger.warn("Error storing asset embeddings: {}", e.getMessage());
+            }
+        }
+        index = built;
+        logger.info("Asset embeddings for snapshot {} rebuilt from {} ({} symbols) in {}ms",
+            snapshotVersion, source, built.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Up to limit assets closest to the symbol, most similar first; empty if the symbol has no
+     * embedding or no index has been built yet (see isReady). Symbols not (yet) stored in
+     * asset_embeddings are answered from memory.
+     */
+    public Optional<List<SimilarAsset>> findSimilar(String symbol, int limit) {
+        EmbeddingIndex current = index;
+        if (current == null) {
+            buildInBackground();
+            return Optional.empty();
+        }
+        int k = Math.max(1, Math.min(limit, maxResults));
+
+        if (pgvectorAvailable) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                Optional<List<SimilarAsset>> stored = findSimilarStored(symbol, k, current);
+                if (stored.isPresent()) {
+                    return stored;
+                }
+            } catch (Exception e) {
+                logger.warn("pgvector similarity query failed for {}, using memory: {}", symbol, e.getMessage());
+            } finally {
+                sample.stop(queryTimer("pgvector"));
+            }
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return current.nearest(symbol, k);
+        } finally {
+            sample.stop(queryTimer("memory"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Optional<List<SimilarAsset>> findSimilarStored(String symbol, int k, EmbeddingIndex current) {
+        List<String> target = jdbcTemplate.queryForList(
+            "SELECT embedding::text FROM asset_embeddings WHERE symbol = ?", String.class, symbol);
+        if (target.isEmpty()) {
+            return Optional.empty();
+        }
+        // Ordering by distance to a bound vector lets the planner use the HNSW index
+        List<SimilarAsset> similar = jdbcTemplate.query(
+            "SELECT symbol, sector, embedding <=> ?::vector AS distance FROM asset_embeddings " +
+            "WHERE symbol <> ? ORDER BY embedding <=> ?::vector LIMIT ?",
+            (rs, rowNum) -> similarAsset(rs.getString("symbol"), current.name(rs.getString("symbol")),
+                rs.getString("sector"), rs.getDouble("distance")),
+            target.get(0), symbol, target.get(0), k);
+        return Optional.of(similar);
+    }
+
+    private void store(EmbeddingIndex built) {
+        List<Object[]> rows = new ArrayList<>(built.size());
+        for (int i = 0; i < built.size(); i++) {
+            rows.add(new Object[] {built.symbols[i], built.sectors[i], new PGvector(built.vectors[i]).toString(),
+                built.snapshotVersion});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO asset_embeddings (symbol, sector, embedding, snapshot_version, updated_at) " +
+            "VALUES (?, ?, ?::vector, ?, now()) ON CONFLICT (symbol) DO UPDATE SET sector = EXCLUDED.sector, " +
+            "embedding = EXCLUDED.embedding, snapshot_version = EXCLUDED.snapshot_version, updated_at = EXCLUDED.updated_at",
+            rows);
+        // Symbols missing from this snapshot (delisted, suspended) drop out of the index
+        jdbcTemplate.update("DELETE FROM asset_embeddings WHERE snapshot_version <> ?", built.snapshotVersion);
+    }
+
+    /**
+     * Per-symbol rolling features over the last lookback-days of equity_data; empty when
+     * equity_data has not caught up with the ingestion snapshot
+     */
+    private List<AssetFeatures> loadRollingFeatures() {
+        LocalDate latest = jdbcTemplate.queryForObject("SELECT max(trade_date) FROM equity_data", LocalDate.class);
+        if (latest == null) {
+            return List.of();
+        }
+        LocalDateTime ingestedAt = dataIngestionService.getLastIngestionTime();
+        if (ingestedAt != null && latest.isBefore(ingestedAt.toLocalDate())) {
+            logger.info("equity_data ends at {}, behind snapshot of {}; embedding the snapshot", latest, ingestedAt.toLocalDate());
+            return List.of();
+        }
+
+        Map<String, SeriesBuilder> series = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT symbol, name, sector, close_price, coalesce(total_traded_value, close_price * total_traded_quantity) AS traded_value " +
+            "FROM equity_data WHERE trade_date > ? AND trade_date <= ? ORDER BY symbol, trade_date",
+            rs -> {
+                SeriesBuilder builder = series.computeIfAbsent(rs.getString("symbol"),
+                    symbol -> new SeriesBuilder(symbol));
+                builder.add(rs.getString("name"), rs.getString("sector"), rs.getDouble("close_price"),
+                    rs.getDouble("traded_value"));
+            },
+            Date.valueOf(latest.minusDays(lookbackDays)), Date.valueOf(latest));
+
+        List<AssetFeatures> features = new ArrayList<>(series.size());
+        for (SeriesBuilder builder : series.values()) {
+            if (builder.closes.size() >= 2) {
+                features.add(builder.toFeatures());
+            }
+        }
+        return features;
+    }
+
+    private List<AssetFeatures> fromSnapshot(List<DataIngestionService.EquityData> equities) {
+        List<AssetFeatures> features = new ArrayList<>(equities.size());
+        for (DataIngestionService.EquityData equity : equities) {
+            double dailyReturn = equity.changePercent / 100;
+            features.add(new AssetFeatures(equity.symbol, equity.name, null, new double[] {
+                dailyReturn, 0, 0, 0, Math.abs(dailyReturn), 0, 0, Math.log1p(equity.price * equity.volume)}));
+        }
+        return features;
+    }
+
+    /**
+     * Standardise each numeric feature across the universe (clipped to 3 standard deviations),
+     * append the hashed sector and normalise to unit length so cosine similarity is a dot product
+     */
+    private EmbeddingIndex embed(List<AssetFeatures> features, long snapshotVersion) {
+        int n = features.size();
+        double[] mean = new double[NUMERIC_FEATURES];
+        double[] std = new double[NUMERIC_FEATURES];
+        for (AssetFeatures asset : features) {
+            for (int f = 0; f < NUMERIC_FEATURES; f++) {
+                mean[f] += asset.values[f] / n;
+            }
+        }
+        for (AssetFeatures asset : features) {
+            for (int f = 0; f < NUMERIC_FEATURES; f++) {
+                std[f] += Math.pow(asset.values[f] - mean[f], 2) / n;
+            }
+        }
+
+        EmbeddingIndex built = new EmbeddingIndex(n, snapshotVersion);
+        for (int i = 0; i < n; i++) {
+            AssetFeatures asset = features.get(i);
+            float[] vector = new float[DIMENSIONS];
+            for (int f = 0; f < NUMERIC_FEATURES; f++) {
+                double sd = Math.sqrt(std[f]);
+                double z = sd > 0 ? (asset.values[f] - mean[f]) / sd : 0;
+                vector[f] = (float) Math.max(-3, Math.min(3, z));
+            }
+            if (asset.sector != null && !asset.sector.isBlank()) {
+                vector[NUMERIC_FEATURES + Math.floorMod(asset.sector.hashCode(), SECTOR_BUCKETS)] = (float) sectorWeight;
+            }
+            normalise(vector);
+            built.set(i, asset.symbol, asset.name, asset.sector, vector);
+        }
+        return built;
+    }
+
+    private static void normalise(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            double scale = 1 / Math.sqrt(norm);
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] = (float) (vector[d] * scale);
+            }
+        }
+    }
+
+    private static SimilarAsset similarAsset(String symbol, String name, String sector, double distance) {
+        return new SimilarAsset(symbol, name, sector, Math.round((1 - distance) * 10_000d) / 10_000d);
+    }
+
+    private Timer queryTimer(String backend) {
+        return Timer.builder("chimera.similarity.query")
+            .description("Latency of similar-asset queries")
+            .tag("backend", backend)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Embeddings of one snapshot as parallel arrays, with a brute-force nearest-neighbour scan
+     */
+    private static final class EmbeddingIndex {
+        private final String[] symbols;
+        private final String[] names;
+        private final String[] sectors;
+        private final float[][] vectors;
+        private final Map<String, Integer> positions;
+        private final long snapshotVersion;
+
+        EmbeddingIndex(int size, long snapshotVersion) {
+            this.symbols = new String[size];
+            this.names = new String[size];
+            this.sectors = new String[size];
+            this.vectors = new float[size][];
+            this.positions = new HashMap<>(size * 2);
+            this.snapshotVersion = snapshotVersion;
+        }
+
+        void set(int position, String symbol, String name, String sector, float[] vector) {
+            symbols[position] = symbol;
+            names[position] = name;
+            sectors[position] = sector;
+            vectors[position] = vector;
+            positions.put(symbol, position);
+        }
+
+        int size() {
+            return symbols.length;
+        }
+
+        String name(String symbol) {
+            Integer position = positions.get(symbol);
+            return position != null ? names[position] : null;
+        }
+
+        Optional<List<SimilarAsset>> nearest(String symbol, int k) {
+            Integer target = positions.get(symbol);
+            if (target == null) {
+                return Optional.empty();
+            }
+            float[] query = vectors[target];
+
+            // Min-heap on similarity holding the k best candidates
+            PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble(entry -> entry[0]));
+            for (int i = 0; i < vectors.length; i++) {
+                if (i == target) {
+                    continue;
+                }
+                double dot = 0;
+                float[] vector = vectors[i];
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    dot += query[d] * vector[d];
+                }
+                best.add(new double[] {dot, i});
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+
+            List<SimilarAsset> similar = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                double[] entry = best.poll();
+                int i = (int) entry[1];
+                similar.add(0, similarAsset(symbols[i], names[i], sectors[i], 1 - entry[0]));
+            }
+            return Optional.of(similar);
+        }
+    }
+
+    /**
+     * Closing prices and traded values of one symbol in trade-date order
+     */
+    private static final class SeriesBuilder {
+        private final String symbol;
+        private String name;
+        private String sector;
+        private final List<Double> closes = new ArrayList<>();
+        private final List<Double> tradedValues = new ArrayList<>();
+
+        SeriesBuilder(String symbol) {
+            this.symbol = symbol;
+        }
+
+        void add(String name, String sector, double close, double tradedValue) {
+            this.name = name;
+            if (sector != null) {
+                this.sector = sector;
+            }
+            closes.add(close);
+            tradedValues.add(tradedValue);
+        }
+
+        AssetFeatures toFeatures() {
+            int n = closes.size();
+            double last = closes.get(n - 1);
+            double high = 0;
+            for (int i = Math.max(0, n - 60); i < n; i++) {
+                high = Math.max(high, closes.get(i));
+            }
+            double tradedValue = 0;
+            int days = Math.min(20, n);
+            for (int i = n - days; i < n; i++) {
+                tradedValue += tradedValues.get(i) / days;
+            }
+            return new AssetFeatures(symbol, name, sector, new double[] {
+                periodReturn(1), periodReturn(5), periodReturn(20), periodReturn(60),
+                volatility(20), volatility(60),
+                high > 0 ? last / high - 1 : 0,
+                Math.log1p(tradedValue)});
+        }
+
+        // Return over the last `days` sessions, or over the whole series when it is shorter
+        private double periodReturn(int days) {
+            int n = closes.size();
+            double start = closes.get(Math.max(0, n - 1 - days));
+            return start > 0 ? closes.get(n - 1) / start - 1 : 0;
+        }
+
+        // Standard deviation of daily returns over the last `days` sessions
+        private double volatility(int days) {
+            int n = closes.size();
+            int from = Math.max(1, n - days);
+            int count = n - from;
+            if (count < 2) {
+                return 0;
+            }
+            double sum = 0;
+            double sumSquares = 0;
+            for (int i = from; i < n; i++) {
+                double previous = closes.get(i - 1);
+                double r = previous > 0 ? closes.get(i) / previous - 1 : 0;
+                sum += r;
+                sumSquares += r * r;
+            }
+            double mean = sum / count;
+            return Math.sqrt(Math.max(0, sumSquares / count - mean * mean));
+        }
+    }
+
+    private static final class AssetFeatures {
+        private final String symbol;
+        private final String name;
+        private final String sector;
+        private final double[] values;
+
+        AssetFeatures(String symbol, String name, String sector, double[] values) {
+            this.symbol = symbol;
+            this.name = name;
+            this.sector = sector;
+            this.values = values;
+        }
+    }
+
+    public static class SimilarAsset {
+        private final String symbol;
+        private final String name;
+        private final String sector;
+        private final double similarity;
+
+        public SimilarAsset(String symbol, String name, String sector, double similarity) {
+            this.symbol = symbol;
+            this.name = name;
+            this.sector = sector;
+            this.similarity = similarity;
+        }
+
+        // Getters
+        public String getSymbol() { return symbol; }
+        public String getName() { return name; }
+        public String getSector() { return sector; }
+        public double getSimilarity() { return similarity; }
+    }
+}
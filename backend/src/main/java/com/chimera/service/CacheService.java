@@ -1,30 +1,59 @@
 package com.chimera.service;
 
+import com.chimera.service.cache.CacheBackend;
+import com.chimera.service.cache.CacheMetrics;
+import com.chimera.service.cache.CachedValue;
+import com.chimera.service.cache.TimestampedEntry;
+import com.chimera.service.concurrent.TaskExecutors;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
+/**
+ * Application cache facade. Storage is delegated to a {@link CacheBackend} chosen per profile
+ * (Redis when available, bounded in-memory otherwise) so callers behave the same everywhere.
+ */
 @Service
 public class CacheService {
     
     private static final Logger logger = LoggerFactory.getLogger(CacheService.class);
     
-    @Autowired(required = false)
-    private RedisTemplate<String, Object> redisTemplate;
+    private final CacheBackend backend;
+    private final CacheMetrics metrics;
+    
+    // Request popularity counters (e.g. ranking buckets) used by cache warm-up
+    private static final int MAX_TRACKED_BUCKETS = 1000;
+    private final Map<String, LongAdder> accessCounts = new ConcurrentHashMap<>();
+    
+    // Background refreshes for stale-while-revalidate entries, one in flight per key
+    private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
     
     // Cache duration constants
     private static final Duration RANKING_CACHE_DURATION = Duration.ofMinutes(30);
     private static final Duration CHAT_CACHE_DURATION = Duration.ofHours(12);
     private static final Duration DAILY_USAGE_CACHE_DURATION = Duration.ofDays(1);
     
-    private boolean isRedisAvailable() {
-        return redisTemplate != null;
+    public CacheService(CacheBackend backend, TaskExecutors taskExecutors) {
+        this.backend = backend;
+        this.metrics = backend.getMetrics();
+        this.refreshExecutor = taskExecutors.newBoundedExecutor("cache-refresh", 2);
+        logger.info("CacheService initialized with {} backend", backend.getName());
+    }
+    
+    public String getBackendName() {
+        return backend.getName();
     }
     
     public void put(String key, Object value) {
@@ -32,13 +61,8 @@ public class CacheService {
     }
     
     public void put(String key, Object value, Duration duration) {
-        if (!isRedisAvailable()) {
-            logger.debug("Redis not available, skipping cache put for key: {}", key);
-            return;
-        }
-        
         try {
-            redisTemplate.opsForValue().set(key, value, duration.toMillis(), TimeUnit.MILLISECONDS);
+            backend.put(key, value, duration);
             logger.debug("Cached value for key: {} with TTL: {}", key, duration);
         } catch (Exception e) {
             logger.error("Error caching value for key {}: ", key, e);
@@ -46,17 +70,14 @@ public class CacheService {
     }
     
     public <T> T get(String key, Class<T> type) {
-        if (!isRedisAvailable()) {
-            logger.debug("Redis not available, cache miss for key: {}", key);
-            return null;
-        }
-        
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = backend.get(key);
             if (value != null && type.isInstance(value)) {
+                metrics.recordHit(key);
                 logger.debug("Cache hit for key: {}", key);
                 return type.cast(value);
             }
+            metrics.recordMiss(key);
             logger.debug("Cache miss for key: {}", key);
             return null;
         } catch (Exception e) {
@@ -67,10 +88,12 @@ public class CacheService {
     
     public Object get(String key) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = backend.get(key);
             if (value != null) {
+                metrics.recordHit(key);
                 logger.debug("Cache hit for key: {}", key);
             } else {
+                metrics.recordMiss(key);
                 logger.debug("Cache miss for key: {}", key);
             }
             return value;
@@ -82,7 +105,7 @@ public class CacheService {
     
     public boolean exists(String key) {
         try {
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+            return backend.exists(key);
         } catch (Exception e) {
             logger.error("Error checking if key exists {}: ", key, e);
             return false;
@@ -91,7 +114,7 @@ public class CacheService {
     
     public void delete(String key) {
         try {
-            redisTemplate.delete(key);
+            backend.delete(key);
             logger.debug("Deleted cache key: {}", key);
         } catch (Exception e) {
             logger.error("Error deleting cache key {}: ", key, e);
@@ -100,10 +123,9 @@ public class CacheService {
     
     public void deletePattern(String pattern) {
         try {
-            Set<String> keys = redisTemplate.keys(pattern);
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                logger.info("Deleted {} cache keys matching pattern: {}", keys.size(), pattern);
+            long deleted = backend.deletePattern(pattern);
+            if (deleted > 0) {
+                logger.info("Deleted {} cache keys matching pattern: {}", deleted, pattern);
             }
         } catch (Exception e) {
             logger.error("Error deleting cache keys with pattern {}: ", pattern, e);
@@ -116,8 +138,7 @@ public class CacheService {
     
     public long increment(String key, long delta) {
         try {
-            Long result = redisTemplate.opsForValue().increment(key, delta);
-            return result != null ? result : 0;
+            return backend.increment(key, delta);
         } catch (Exception e) {
             logger.error("Error incrementing cache key {}: ", key, e);
             return 0;
@@ -126,13 +147,100 @@ public class CacheService {
     
     public void expire(String key, Duration duration) {
         try {
-            redisTemplate.expire(key, duration.toMillis(), TimeUnit.MILLISECONDS);
+            backend.expire(key, duration);
             logger.debug("Set TTL for key: {} to {}", key, duration);
         } catch (Exception e) {
             logger.error("Error setting TTL for key {}: ", key, e);
         }
     }
     
+    /**
+     * Stale-while-revalidate lookup.
+     *
+     * Entries younger than softTtl are returned as fresh. Entries between softTtl and hardTtl
+     * are returned immediately as stale and a single background refresh is scheduled.
+     * Missing (or hard-expired) entries are loaded synchronously. A loader returning null
+     * is treated as "do not cache" and the null is passed through.
+     */
+    public <T> CachedValue<T> getOrLoad(String key, Class<T> type, Duration softTtl, Duration hardTtl, Supplier<T> loader) {
+        TimestampedEntry entry = get(key, TimestampedEntry.class);
+        if (entry != null && type.isInstance(entry.getValue())) {
+            long ageMillis = entry.ageMillis(System.currentTimeMillis());
+            T value = type.cast(entry.getValue());
+            if (ageMillis < softTtl.toMillis()) {
+                return new CachedValue<>(value, ageMillis, true, false);
+            }
+            
+            logger.debug("Serving stale value for key: {} (age {} ms), scheduling refresh", key, ageMillis);
+            scheduleRefresh(key, hardTtl, loader);
+            return new CachedValue<>(value, ageMillis, true, true);
+        }
+        
+        T value = loader.get();
+        if (value != null) {
+            put(key, new TimestampedEntry(value, System.currentTimeMillis()), hardTtl);
+        }
+        return CachedValue.computed(value);
+    }
+    
+    private <T> void scheduleRefresh(String key, Duration hardTtl, Supplier<T> loader) {
+        if (!refreshesInFlight.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    T refreshed = loader.get();
+                    if (refreshed != null) {
+                        put(key, new TimestampedEntry(refreshed, System.currentTimeMillis()), hardTtl);
+                        logger.debug("Background refresh completed for key: {}", key);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Background refresh failed for key {}: {}", key, e.getMessage());
+                } finally {
+                    refreshesInFlight.remove(key);
+                }
+            });
+        } catch (Exception e) {
+            refreshesInFlight.remove(key);
+            logger.warn("Could not schedule refresh for key {}: {}", key, e.getMessage());
+        }
+    }
+    
+    /**
+     * Count one access to a request bucket. Local and lock-free; new buckets stop being
+     * tracked once MAX_TRACKED_BUCKETS distinct buckets exist so memory stays bounded.
+     */
+    public void recordAccess(String namespace, String bucket) {
+        String key = namespace + ":" + bucket;
+        LongAdder counter = accessCounts.get(key);
+        if (counter == null) {
+            if (accessCounts.size() >= MAX_TRACKED_BUCKETS) {
+                return;
+            }
+            counter = accessCounts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+    
+    /**
+     * Most frequently accessed buckets in a namespace, most popular first
+     */
+    public List<String> topAccessed(String namespace, int limit) {
+        String prefix = namespace + ":";
+        return accessCounts.entrySet().stream()
+            .filter(e -> e.getKey().startsWith(prefix))
+            .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+            .limit(limit)
+            .map(e -> e.getKey().substring(prefix.length()))
+            .toList();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+    
     // Specialized cache methods for different data types
     public void cacheRankings(String requestKey, Object rankings) {
         put("rankings:" + requestKey, rankings, RANKING_CACHE_DURATION);
@@ -142,40 +250,61 @@ public class CacheService {
         return get("rankings:" + requestKey);
     }
     
-    public void cacheChatResponse(String question, Object response) {
-        String key = "chat:" + question.hashCode();
-        put(key, response, CHAT_CACHE_DURATION);
+    // Keyed by the caller's normalized key rather than hashCode() to avoid collisions
+    public void cacheChatResponse(String questionKey, Object response) {
+        put("chat:" + questionKey, response, CHAT_CACHE_DURATION);
     }
     
-    public Object getCachedChatResponse(String question) {
-        String key = "chat:" + question.hashCode();
-        return get(key);
+    public Object getCachedChatResponse(String questionKey) {
+        return get("chat:" + questionKey);
     }
     
-    // Cost tracking
+    // Cost tracking - an atomic counter of micro-dollars, so concurrent completions (and
+    // instances sharing Redis) never lose each other's spend; read back with getCounter
     public void trackDailyUsage(String date, double cost) {
         String key = "usage:" + date;
+        long micros = Math.round(cost * 1_000_000);
+        if (micros <= 0) {
+            return;
+        }
         try {
-            Double currentUsage = get(key, Double.class);
-            double newUsage = (currentUsage != null ? currentUsage : 0.0) + cost;
-            put(key, newUsage, DAILY_USAGE_CACHE_DURATION);
-            logger.debug("Updated daily usage for {}: ${:.4f}", date, newUsage);
+            long total = backend.increment(key, micros);
+            if (total == micros) {
+                // First spend of the day - the counter expires with the day
+                expire(key, DAILY_USAGE_CACHE_DURATION);
+            }
+            logger.debug("Updated daily usage for {}: ${}", date, String.format("%.4f", total / 1_000_000.0));
         } catch (Exception e) {
             logger.error("Error tracking daily usage: ", e);
         }
     }
     
     public double getDailyUsage(String date) {
-        String key = "usage:" + date;
-        Double usage = get(key, Double.class);
-        return usage != null ? usage : 0.0;
+        return getCounter("usage:" + date) / 1_000_000.0;
+    }
+    
+    /**
+     * Value of a counter maintained with increment(); 0 when absent or unreadable
+     */
+    public long getCounter(String key) {
+        try {
+            return backend.getCounter(key);
+        } catch (Exception e) {
+            logger.error("Error reading counter {}: ", key, e);
+            return 0;
+        }
     }
     
     // Rate limiting
     public boolean isRateLimited(String clientId, int maxRequests, Duration window) {
         String key = "rate_limit:" + clientId;
         try {
-            Long currentCount = redisTemplate.opsForValue().increment(key);
+            // Clients already over the limit are rejected without growing the window's counter
+            if (backend.getCounter(key) >= maxRequests) {
+                logger.warn("Rate limit exceeded for client: {} (limit {})", clientId, maxRequests);
+                return true;
+            }
+            long currentCount = backend.increment(key, 1);
             
             if (currentCount == 1) {
                 // First request in window - set expiration
@@ -209,14 +338,9 @@ public class CacheService {
     
     public CacheStats getCacheStats() {
         try {
-            Set<String> allKeys = redisTemplate.keys("*");
-            int totalKeys = allKeys != null ? allKeys.size() : 0;
-            
-            Set<String> rankingKeys = redisTemplate.keys("rankings:*");
-            int rankingCacheSize = rankingKeys != null ? rankingKeys.size() : 0;
-            
-            Set<String> chatKeys = redisTemplate.keys("chat:*");
-            int chatCacheSize = chatKeys != null ? chatKeys.size() : 0;
+            int totalKeys = (int) backend.countKeys("*");
+            int rankingCacheSize = (int) backend.countKeys("rankings:*");
+            int chatCacheSize = (int) backend.countKeys("chat:*");
             
             return new CacheStats(totalKeys, rankingCacheSize, chatCacheSize);
         } catch (Exception e) {
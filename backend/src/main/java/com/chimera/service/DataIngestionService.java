@@ -1,8 +1,11 @@
 package com.chimera.service;
 
+import com.chimera.service.datasource.DbWorkload;
+import com.chimera.service.http.HttpClientFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -13,6 +16,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -40,15 +45,25 @@ public class DataIngestionService {
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     private final CacheService cacheService;
+    private final ApplicationEventPublisher eventPublisher;
     
     // Cache for ingested data (in-memory for MVP)
     private final Map<String, EquityData> equityCache = new HashMap<>();
     private final Map<String, MutualFundData> mutualFundCache = new HashMap<>();
-    private LocalDateTime lastDataIngestion = null;
+    private volatile LocalDateTime lastDataIngestion = null;
     
-    public DataIngestionService(CacheService cacheService) {
+    // Version of the currently published data snapshot, derived from its trade date and content
+    // (see snapshotVersionOf) so instances and restarts holding the same data share cache keys
+    private final AtomicLong snapshotVersion = new AtomicLong(0);
+    
+    // One ingestion at a time; stale readers queue behind it instead of ingesting again
+    private final ReentrantLock ingestionLock = new ReentrantLock();
+    
+    public DataIngestionService(CacheService cacheService, ApplicationEventPublisher eventPublisher,
+                                HttpClientFactory httpClientFactory) {
         this.cacheService = cacheService;
-        this.webClient = WebClient.builder()
+        this.eventPublisher = eventPublisher;
+        this.webClient = httpClientFactory.builder("ingestion")
             .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB limit
             .build();
         this.objectMapper = new ObjectMapper();
@@ -60,6 +75,16 @@ public class DataIngestionService {
      * Main ingestion method - called by scheduler or on-demand
      */
     public DataIngestionResult ingestMarketData() {
+        ingestionLock.lock();
+        try {
+            // Database work done by snapshot listeners counts against the ingestion bulkhead
+            return DbWorkload.INGESTION.call(this::ingest);
+        } finally {
+            ingestionLock.unlock();
+        }
+    }
+    
+    private DataIngestionResult ingest() {
         if (!enableRealDataIngestion) {
             logger.info("Real data ingestion disabled - using enhanced mock data");
             return ingestEnhancedMockData();
@@ -85,6 +110,7 @@ public class DataIngestionService {
             result.success = true;
             result.message = String.format("Successfully ingested %d equities and %d mutual funds", 
                 result.nseEquities.size(), result.mutualFunds.size());
+            result.snapshotVersion = publishSnapshot(result);
             
             logger.info("Market data ingestion completed successfully");
             
@@ -170,7 +196,7 @@ public class DataIngestionService {
                             schemeCode,
                             schemeName,
                             nav,
-                            calculateMockChange(), // Mock daily change
+                            calculateMockChange(schemeCode), // Mock daily change
                             LocalDate.now()
                         );
                         funds.add(fund);
@@ -219,7 +245,7 @@ public class DataIngestionService {
                 company[1], // name
                 Double.parseDouble(company[2]), // price
                 Double.parseDouble(company[3]), // change %
-                calculateMockVolume(), // volume
+                calculateMockVolume(company[0]), // volume
                 LocalDateTime.now()
             );
             equities.add(equity);
@@ -252,7 +278,7 @@ public class DataIngestionService {
                 fund[0], // code
                 fund[1], // name
                 Double.parseDouble(fund[2]), // nav
-                calculateMockChange(), // change %
+                calculateMockChange(fund[0]), // change %
                 LocalDate.now()
             );
             funds.add(mutualFund);
@@ -275,10 +301,64 @@ public class DataIngestionService {
         lastDataIngestion = LocalDateTime.now();
         result.success = true;
         result.message = "Enhanced mock data loaded successfully";
+        result.snapshotVersion = publishSnapshot(result);
         
         return result;
     }
     
+    /**
+     * Publish the ingested data as a new snapshot version and notify listeners (cache warm-up,
+     * summaries, etc.) when its trade date or content changed; a re-ingest of the same data keeps
+     * the current version and its cache entries. Cache entries are keyed by version, so older
+     * entries are bypassed without mass deletes.
+     */
+    private long publishSnapshot(DataIngestionResult result) {
+        long version = snapshotVersionOf(result);
+        if (snapshotVersion.getAndSet(version) == version) {
+            logger.info("Data snapshot version {} unchanged after re-ingestion", version);
+            return version;
+        }
+        logger.info("Published data snapshot version {} ({} equities, {} mutual funds)",
+            version, result.nseEquities.size(), result.mutualFunds.size());
+        
+        try {
+            eventPublisher.publishEvent(new SnapshotPublishedEvent(version, result.nseEquities.size(),
+                result.mutualFunds.size(), lastDataIngestion));
+        } catch (Exception e) {
+            logger.error("Error publishing snapshot event for version {}: ", version, e);
+        }
+        return version;
+    }
+    
+    /**
+     * Trade date (epoch day) times 10^9 plus a 9-digit hash of the equities and funds, so the
+     * version only changes with the data and grows with the trade date
+     */
+    static long snapshotVersionOf(DataIngestionResult result) {
+        LocalDate tradeDate = LocalDate.MIN;
+        long hash = 17;
+        List<EquityData> equities = new ArrayList<>(result.nseEquities);
+        equities.sort(Comparator.comparing(equity -> equity.symbol));
+        for (EquityData equity : equities) {
+            tradeDate = max(tradeDate, equity.timestamp.toLocalDate());
+            hash = 31 * hash + Objects.hash(equity.symbol, equity.name, equity.price, equity.changePercent, equity.volume);
+        }
+        List<MutualFundData> funds = new ArrayList<>(result.mutualFunds);
+        funds.sort(Comparator.comparing(fund -> fund.schemeCode));
+        for (MutualFundData fund : funds) {
+            tradeDate = max(tradeDate, fund.date);
+            hash = 31 * hash + Objects.hash(fund.schemeCode, fund.schemeName, fund.nav, fund.changePercent);
+        }
+        if (tradeDate.equals(LocalDate.MIN)) {
+            tradeDate = LocalDate.now();
+        }
+        return tradeDate.toEpochDay() * 1_000_000_000L + Math.floorMod(hash, 1_000_000_000L);
+    }
+    
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
     private void updateEquityCache(List<EquityData> equities) {
         equityCache.clear();
         for (EquityData equity : equities) {
@@ -293,37 +373,71 @@ public class DataIngestionService {
         }
     }
     
-    private long calculateMockVolume() {
-        return (long) (Math.random() * 10000000) + 100000; // 100K to 10M
+    // Mock values are seeded by instrument and day, so re-ingesting on the same day yields the
+    // same snapshot (and snapshot version) on every instance
+    private long calculateMockVolume(String symbol) {
+        return (long) (mockRandom(symbol).nextDouble() * 10000000) + 100000; // 100K to 10M
     }
     
-    private double calculateMockChange() {
-        return (Math.random() - 0.5) * 6; // -3% to +3%
+    private double calculateMockChange(String code) {
+        return (mockRandom(code).nextDouble() - 0.5) * 6; // -3% to +3%
+    }
+    
+    private static Random mockRandom(String code) {
+        return new Random(31L * code.hashCode() + LocalDate.now().toEpochDay());
     }
     
     // Public access methods for ranking service
     public List<EquityData> getAllEquities() {
-        if (lastDataIngestion == null || lastDataIngestion.isBefore(LocalDateTime.now().minusHours(1))) {
-            ingestMarketData(); // Refresh data if older than 1 hour
-        }
+        refreshIfStale();
         return new ArrayList<>(equityCache.values());
     }
     
     public List<MutualFundData> getAllMutualFunds() {
-        if (lastDataIngestion == null || lastDataIngestion.isBefore(LocalDateTime.now().minusHours(1))) {
-            ingestMarketData(); // Refresh data if older than 1 hour
-        }
+        refreshIfStale();
         return new ArrayList<>(mutualFundCache.values());
     }
     
+    private void refreshIfStale() {
+        if (!isStale()) {
+            return;
+        }
+        ingestionLock.lock();
+        try {
+            // Callers that queued behind another ingestion find its data fresh
+            if (isStale()) {
+                ingestMarketData();
+            }
+        } finally {
+            ingestionLock.unlock();
+        }
+    }
+    
+    private boolean isStale() {
+        LocalDateTime ingestedAt = lastDataIngestion;
+        return ingestedAt == null || ingestedAt.isBefore(LocalDateTime.now().minusHours(1)); // Refresh data if older than 1 hour
+    }
+    
     public EquityData getEquityBySymbol(String symbol) {
         return equityCache.get(symbol.toUpperCase());
     }
     
+    public MutualFundData getMutualFundBySchemeCode(String schemeCode) {
+        return mutualFundCache.get(schemeCode);
+    }
+    
     public LocalDateTime getLastIngestionTime() {
         return lastDataIngestion;
     }
     
+    /**
+     * Version of the data that getAllEquities/getAllMutualFunds would return right now
+     */
+    public long getSnapshotVersion() {
+        refreshIfStale();
+        return snapshotVersion.get();
+    }
+    
     public boolean isDataFresh() {
         return lastDataIngestion != null && 
                lastDataIngestion.isAfter(LocalDateTime.now().minusHours(2));
@@ -336,6 +450,30 @@ public class DataIngestionService {
         public List<EquityData> nseEquities = new ArrayList<>();
         public List<MutualFundData> mutualFunds = new ArrayList<>();
         public LocalDateTime timestamp = LocalDateTime.now();
+        public long snapshotVersion;
+    }
+    
+    /**
+     * Published after every successful ingestion, real or mock, whose data differs from the
+     * current snapshot
+     */
+    public static class SnapshotPublishedEvent {
+        private final long snapshotVersion;
+        private final int equityCount;
+        private final int mutualFundCount;
+        private final LocalDateTime publishedAt;
+        
+        public SnapshotPublishedEvent(long snapshotVersion, int equityCount, int mutualFundCount, LocalDateTime publishedAt) {
+            this.snapshotVersion = snapshotVersion;
+            this.equityCount = equityCount;
+            this.mutualFundCount = mutualFundCount;
+            this.publishedAt = publishedAt;
+        }
+        
+        public long getSnapshotVersion() { return snapshotVersion; }
+        public int getEquityCount() { return equityCount; }
+        public int getMutualFundCount() { return mutualFundCount; }
+        public LocalDateTime getPublishedAt() { return publishedAt; }
     }
     
     public static class EquityData {
@@ -0,0 +1,193 @@
+package com.chimera.service;
+
+import com.chimera.dto.RankingRequest;
+import com.chimera.dto.RankingResponse;
+import com.chimera.service.concurrent.TaskExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates and caches explanations for the top-ranked symbols of every risk profile as soon
+ * as a new snapshot is published, so the first "why" for a popular symbol is a cache hit.
+ *
+ * Spending is capped at chimera.chat.precompute.budget-share of chimera.budget.daily-limit per
+ * day; the rest of the budget stays reserved for questions users actually ask. Symbols are
+ * processed in small batched completions and the cap is re-checked between batches.
+ */
+@Component
+public class ExplanationPrecomputer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExplanationPrecomputer.class);
+
+    private static final List<String> RISK_PROFILES = List.of("CONSERVATIVE", "MODERATE", "AGGRESSIVE");
+
+    @Value("${chimera.chat.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chimera.chat.precompute.top-k:15}")
+    private int topK;
+
+    @Value("${chimera.chat.precompute.budget-share:0.2}")
+    private double budgetShare;
+
+    @Value("${chimera.chat.precompute.chunk-size:5}")
+    private int chunkSize;
+
+    @Value("${chimera.chat.precompute.question:Why is {symbol} ranked high?}")
+    private String question;
+
+    @Value("${chimera.budget.daily-limit:5.0}")
+    private double dailyBudgetLimit;
+
+    private final RankingService rankingService;
+    private final OpenAIService openAIService;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    // Latest snapshot published while a run was active, 0 if none
+    private final AtomicLong pendingVersion = new AtomicLong();
+
+    // Precompute spend for the current day - only touched from the precompute executor
+    private LocalDate spendDate = LocalDate.now();
+    private double spentToday;
+
+    public ExplanationPrecomputer(RankingService rankingService, OpenAIService openAIService, TaskExecutors taskExecutors) {
+        this.rankingService = rankingService;
+        this.openAIService = openAIService;
+        this.executor = taskExecutors.newSingleThreadExecutor("explanation-precompute");
+    }
+
+    @EventListener
+    public void onSnapshotPublished(DataIngestionService.SnapshotPublishedEvent event) {
+        if (!enabled || budgetShare <= 0) {
+            return;
+        }
+        requestPrecompute(event.getSnapshotVersion());
+    }
+
+    private void requestPrecompute(long snapshotVersion) {
+        if (!running.compareAndSet(false, true)) {
+            // A run is in progress; precompute the newest snapshot once it finishes
+            logger.debug("Explanation precompute already running, queueing snapshot {}", snapshotVersion);
+            pendingVersion.set(snapshotVersion);
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                long next = snapshotVersion;
+                while (next != 0) {
+                    precomputeSafely(next);
+                    next = pendingVersion.getAndSet(0);
+                }
+            } finally {
+                running.set(false);
+                long missed = pendingVersion.getAndSet(0);
+                if (missed != 0) {
+                    requestPrecompute(missed);
+                }
+            }
+        });
+    }
+
+    private void precomputeSafely(long snapshotVersion) {
+        try {
+            precompute(snapshotVersion);
+        } catch (Exception e) {
+            logger.error("Explanation precompute failed for snapshot {}: ", snapshotVersion, e);
+        }
+    }
+
+    private void precompute(long snapshotVersion) {
+        List<String> symbols = selectSymbols(snapshotVersion);
+        if (symbols.isEmpty()) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        double allowance = dailyBudgetLimit * budgetShare;
+        int explained = 0;
+
+        for (int from = 0; from < symbols.size(); from += Math.max(1, chunkSize)) {
+            double remaining = allowance - spentToday();
+            if (remaining <= 0) {
+                logger.info("Explanation precompute stopped at budget share (${} of ${}), {} of {} symbols done",
+                        String.format("%.4f", spentToday()), String.format("%.2f", allowance), explained, symbols.size());
+                break;
+            }
+
+            List<String> chunk = symbols.subList(from, Math.min(symbols.size(), from + Math.max(1, chunkSize)));
+            double usageBefore = openAIService.getDailyUsageStats().getDailyUsage();
+            openAIService.generateExplanations(chunk, question, "Financial ranking analysis context").block();
+            double cost = Math.max(0, openAIService.getDailyUsageStats().getDailyUsage() - usageBefore);
+
+            addSpend(cost);
+            explained += chunk.size();
+        }
+
+        logger.info("Precomputed explanations for {} symbols of snapshot {} in {}ms (precompute spend today ${})",
+                explained, snapshotVersion, System.currentTimeMillis() - started, String.format("%.4f", spentToday()));
+    }
+
+    /**
+     * Top-K symbols of each risk profile's default ranking, interleaved so a tight budget
+     * still covers the leaders of every profile
+     */
+    private List<String> selectSymbols(long snapshotVersion) {
+        List<List<String>> perProfile = new ArrayList<>();
+        for (String risk : RISK_PROFILES) {
+            RankingRequest request = new RankingRequest(100000.0, 30, risk);
+            request.setMaxResults(Math.max(1, Math.min(topK, 50)));
+            RankingResponse response = rankingService.warmRankings(request, snapshotVersion);
+            List<String> symbols = new ArrayList<>();
+            if (response != null && response.getRankings() != null) {
+                response.getRankings().forEach(r -> symbols.add(r.getSymbol()));
+            }
+            perProfile.add(symbols);
+        }
+
+        Set<String> ordered = new LinkedHashSet<>();
+        for (int rank = 0; rank < topK; rank++) {
+            for (List<String> symbols : perProfile) {
+                if (rank < symbols.size()) {
+                    ordered.add(symbols.get(rank));
+                }
+            }
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    private double spentToday() {
+        rollDay();
+        return spentToday;
+    }
+
+    private void addSpend(double cost) {
+        rollDay();
+        spentToday += cost;
+    }
+
+    private void rollDay() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(spendDate)) {
+            spendDate = today;
+            spentToday = 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
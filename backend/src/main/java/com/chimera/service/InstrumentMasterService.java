@@ -0,0 +1,183 @@
+package com.chimera.service;
+
+import com.chimera.model.AssetType;
+import com.chimera.model.Instrument;
+import com.chimera.repository.EquityDataRepository;
+import com.chimera.repository.InstrumentRepository;
+import com.chimera.service.concurrent.TaskExecutors;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Maintains the instrument master (V7__instrument_master.sql) and the second-level cache
+ * regions built on it.
+ *
+ * On each ingestion snapshot the master is upserted from the snapshot (names of equities and
+ * mutual fund schemes) and from the latest equity_data rows (sector, series). Upserts only touch
+ * rows whose values differ, so the "instrument-master" region is evicted only when the master
+ * actually changed. The "active-symbols" query region is evicted on every snapshot, since new
+ * prices can change which symbols are active. Instances that did not run the ingestion rely on
+ * the region expiry in application.conf. The upsert and evictions run on a background thread,
+ * off the request thread that ran the ingestion.
+ */
+@Service
+public class InstrumentMasterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentMasterService.class);
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_SYMBOL_LENGTH = 20;
+
+    // Only rows whose values change are updated, so the affected row count says whether the
+    // master changed
+    private static final String UPSERT_FROM_SNAPSHOT =
+        "INSERT INTO instruments (symbol, asset_type, name, updated_at) VALUES (?, ?, ?, now()) " +
+        "ON CONFLICT (symbol) DO UPDATE SET asset_type = EXCLUDED.asset_type, name = EXCLUDED.name, updated_at = now() " +
+        "WHERE (instruments.asset_type, instruments.name) IS DISTINCT FROM (EXCLUDED.asset_type, EXCLUDED.name)";
+
+    private static final String UPSERT_FROM_EQUITY_DATA =
+        "INSERT INTO instruments (symbol, asset_type, name, sector, series, updated_at) " +
+        "SELECT DISTINCT ON (symbol) symbol, 'EQUITY', name, sector, series, now() FROM equity_data " +
+        "WHERE trade_date = (SELECT max(trade_date) FROM equity_data) ORDER BY symbol " +
+        "ON CONFLICT (symbol) DO UPDATE SET sector = COALESCE(EXCLUDED.sector, instruments.sector), " +
+        "series = COALESCE(EXCLUDED.series, instruments.series), updated_at = now() " +
+        "WHERE (instruments.sector, instruments.series) IS DISTINCT FROM " +
+        "(COALESCE(EXCLUDED.sector, instruments.sector), COALESCE(EXCLUDED.series, instruments.series))";
+
+    private final DataIngestionService dataIngestionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final InstrumentRepository instrumentRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ExecutorService executor;
+
+    public InstrumentMasterService(DataIngestionService dataIngestionService,
+                                   ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
+                                   ObjectProvider<InstrumentRepository> instrumentRepositoryProvider,
+                                   ObjectProvider<EntityManagerFactory> entityManagerFactoryProvider,
+                                   TaskExecutors taskExecutors) {
+        this.dataIngestionService = dataIngestionService;
+        this.jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        this.instrumentRepository = instrumentRepositoryProvider.getIfAvailable();
+        this.entityManagerFactory = entityManagerFactoryProvider.getIfAvailable();
+        this.executor = taskExecutors.newSingleThreadExecutor("instrument-master");
+    }
+
+    @EventListener
+    public void onSnapshotPublished(DataIngestionService.SnapshotPublishedEvent event) {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                logger.error("Error refreshing instrument master for snapshot {}: ", event.getSnapshotVersion(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Upsert the master from the current snapshot and evict the affected cache regions
+     */
+    public void refresh() {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        int changed = 0;
+        try {
+            changed = upsertFromSnapshot() + jdbcTemplate.update(UPSERT_FROM_EQUITY_DATA);
+            if (changed > 0) {
+                logger.info("Instrument master updated ({} instruments changed)", changed);
+            }
+        } catch (Exception e) {
+            logger.warn("Error updating instrument master: {}", e.getMessage());
+        }
+        evictCaches(changed > 0);
+    }
+
+    /**
+     * Reference data of an equity symbol or scheme code, from the cached master; falls back to
+     * the ingestion snapshot without a datasource or before the master has the instrument
+     */
+    public Optional<Instrument> getInstrument(String symbol) {
+        if (instrumentRepository != null) {
+            try {
+                Optional<Instrument> stored = instrumentRepository.findById(symbol);
+                if (stored.isPresent()) {
+                    return stored;
+                }
+            } catch (Exception e) {
+                logger.warn("Error reading instrument {}: {}", symbol, e.getMessage());
+            }
+        }
+
+        DataIngestionService.EquityData equity = dataIngestionService.getEquityBySymbol(symbol);
+        if (equity != null) {
+            return Optional.of(new Instrument(equity.symbol, AssetType.EQUITY, equity.name));
+        }
+        DataIngestionService.MutualFundData fund = dataIngestionService.getMutualFundBySchemeCode(symbol);
+        if (fund != null) {
+            return Optional.of(new Instrument(fund.schemeCode, AssetType.MUTUAL_FUND, fund.schemeName));
+        }
+        return Optional.empty();
+    }
+
+    private int upsertFromSnapshot() {
+        List<Object[]> rows = new ArrayList<>();
+        for (DataIngestionService.EquityData equity : dataIngestionService.getAllEquities()) {
+            addRow(rows, equity.symbol, AssetType.EQUITY, equity.name);
+        }
+        for (DataIngestionService.MutualFundData fund : dataIngestionService.getAllMutualFunds()) {
+            addRow(rows, fund.schemeCode, AssetType.MUTUAL_FUND, fund.schemeName);
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        int changed = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPSERT_FROM_SNAPSHOT, rows)) {
+            changed += Math.max(0, count);
+        }
+        return changed;
+    }
+
+    private static void addRow(List<Object[]> rows, String symbol, AssetType assetType, String name) {
+        if (symbol == null || symbol.length() > MAX_SYMBOL_LENGTH || name == null) {
+            return;
+        }
+        rows.add(new Object[] {symbol, assetType.name(),
+            name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name});
+    }
+
+    private void evictCaches(boolean masterChanged) {
+        if (entityManagerFactory == null) {
+            return;
+        }
+        try {
+            if (masterChanged) {
+                entityManagerFactory.getCache().evict(Instrument.class);
+            }
+            entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                .evictQueryRegion(EquityDataRepository.ACTIVE_SYMBOLS_CACHE_REGION);
+        } catch (Exception e) {
+            logger.warn("Error evicting reference data cache regions: {}", e.getMessage());
+        }
+    }
+}
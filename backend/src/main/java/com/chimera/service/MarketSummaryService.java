@@ -0,0 +1,301 @@
+package com.chimera.service;
+
+import com.chimera.service.concurrent.TaskExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Per-day market overview (breadth, averages, top gainers / losers / most traded), computed
+ * once per ingestion snapshot instead of on every request.
+ *
+ * With a datasource the summary tables (V4__market_daily_summary.sql) are refreshed from
+ * equity_data for the latest trade date and reads are a handful of primary-key rows. When
+ * equity_data has no rows for that date, when its latest trade date is older than the
+ * in-memory ingestion snapshot, or on profiles without a datasource, the overview is built
+ * from the snapshot instead.
+ *
+ * Refreshes triggered by a new snapshot run on a background thread, off the request thread
+ * that ran the ingestion.
+ */
+@Service
+public class MarketSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketSummaryService.class);
+
+    @Value("${chimera.market-summary.top-n:10}")
+    private int topN;
+
+    private final DataIngestionService dataIngestionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService executor;
+
+    // Latest overview, replaced as a whole on each refresh
+    private volatile MarketOverview latest;
+
+    public MarketSummaryService(DataIngestionService dataIngestionService,
+                                ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
+                                TaskExecutors taskExecutors) {
+        this.dataIngestionService = dataIngestionService;
+        this.jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        this.executor = taskExecutors.newSingleThreadExecutor("market-summary");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (jdbcTemplate != null) {
+            try {
+                LocalDate tradeDate = jdbcTemplate.queryForObject(
+                    "SELECT max(trade_date) FROM market_daily_summary", LocalDate.class);
+                if (tradeDate != null) {
+                    latest = loadOverview(tradeDate).orElse(null);
+                }
+            } catch (Exception e) {
+                logger.warn("Could not load stored market summary: {}", e.getMessage());
+            }
+        }
+    }
+
+    @EventListener
+    public void onSnapshotPublished(DataIngestionService.SnapshotPublishedEvent event) {
+        executor.execute(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                logger.error("Error refreshing market summary for snapshot {}: ", event.getSnapshotVersion(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Recompute the overview for the latest trade date
+     */
+    public void refresh() {
+        long startTime = System.currentTimeMillis();
+        MarketOverview overview = null;
+
+        if (jdbcTemplate != null) {
+            try {
+                LocalDate tradeDate = jdbcTemplate.queryForObject("SELECT max(trade_date) FROM equity_data", LocalDate.class);
+                LocalDate snapshotDate = snapshotTradeDate();
+                if (tradeDate != null && tradeDate.isBefore(snapshotDate)) {
+                    // equity_data has not caught up with the snapshot; don't publish an older day
+                    logger.info("equity_data ends at {}, behind snapshot of {}; using the snapshot", tradeDate, snapshotDate);
+                } else if (tradeDate != null) {
+                    Integer symbols = jdbcTemplate.queryForObject(
+                        "SELECT chimera_refresh_market_summary(?, ?)", Integer.class, Date.valueOf(tradeDate), topN);
+                    if (symbols != null && symbols > 0) {
+                        overview = loadOverview(tradeDate).orElse(null);
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("Error refreshing market summary tables: {}", e.getMessage());
+            }
+        }
+
+        if (overview == null) {
+            overview = fromSnapshot(dataIngestionService.getAllEquities());
+        }
+
+        latest = overview;
+        logger.info("Market summary for {} refreshed from {} ({} symbols) in {}ms",
+            overview.getTradeDate(), overview.getSource(), overview.getSymbolCount(), System.currentTimeMillis() - startTime);
+    }
+
+    public MarketOverview getOverview() {
+        MarketOverview overview = latest;
+        if (overview == null) {
+            refresh();
+            overview = latest;
+        }
+        return overview;
+    }
+
+    /**
+     * Stored overview of a past trade date; empty without a datasource or summary rows
+     */
+    public Optional<MarketOverview> getOverview(LocalDate tradeDate) {
+        MarketOverview overview = latest;
+        if (overview != null && tradeDate.equals(overview.getTradeDate())) {
+            return Optional.of(overview);
+        }
+        if (jdbcTemplate == null) {
+            return Optional.empty();
+        }
+        try {
+            return loadOverview(tradeDate);
+        } catch (Exception e) {
+            logger.warn("Error reading market summary for {}: {}", tradeDate, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<MarketOverview> loadOverview(LocalDate tradeDate) {
+        List<MarketOverview> summaries = jdbcTemplate.query(
+            "SELECT trade_date, symbol_count, advancers, decliners, avg_close, avg_volume, total_volume, refreshed_at " +
+            "FROM market_daily_summary WHERE trade_date = ?",
+            (rs, rowNum) -> new MarketOverview(
+                rs.getObject("trade_date", LocalDate.class),
+                rs.getInt("symbol_count"),
+                rs.getInt("advancers"),
+                rs.getInt("decliners"),
+                rs.getDouble("avg_close"),
+                rs.getDouble("avg_volume"),
+                rs.getLong("total_volume"),
+                rs.getObject("refreshed_at", LocalDateTime.class),
+                "equity_data"),
+            Date.valueOf(tradeDate));
+        if (summaries.isEmpty()) {
+            return Optional.empty();
+        }
+
+        MarketOverview overview = summaries.get(0);
+        Map<String, List<Mover>> movers = jdbcTemplate.query(
+            "SELECT category, symbol, name, close_price, change_percent, total_traded_quantity " +
+            "FROM market_daily_movers WHERE trade_date = ? ORDER BY category, position",
+            (rs, rowNum) -> Map.entry(rs.getString("category"), mover(rs)),
+            Date.valueOf(tradeDate)
+        ).stream().collect(Collectors.groupingBy(Map.Entry::getKey,
+            Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+        overview.topGainers = movers.getOrDefault("GAINER", List.of());
+        overview.topLosers = movers.getOrDefault("LOSER", List.of());
+        overview.mostActive = movers.getOrDefault("VOLUME", List.of());
+        return Optional.of(overview);
+    }
+
+    private static Mover mover(ResultSet rs) throws SQLException {
+        Number changePercent = (Number) rs.getObject("change_percent");
+        Number volume = (Number) rs.getObject("total_traded_quantity");
+        return new Mover(rs.getString("symbol"), rs.getString("name"), rs.getDouble("close_price"),
+            changePercent != null ? changePercent.doubleValue() : null,
+            volume != null ? volume.longValue() : null);
+    }
+
+    private LocalDate snapshotTradeDate() {
+        LocalDateTime ingestedAt = dataIngestionService.getLastIngestionTime();
+        return ingestedAt != null ? ingestedAt.toLocalDate() : LocalDate.now();
+    }
+
+    private MarketOverview fromSnapshot(List<DataIngestionService.EquityData> equities) {
+        MarketOverview overview = new MarketOverview(
+            snapshotTradeDate(),
+            equities.size(),
+            (int) equities.stream().filter(e -> e.changePercent > 0).count(),
+            (int) equities.stream().filter(e -> e.changePercent < 0).count(),
+            equities.stream().mapToDouble(e -> e.price).average().orElse(0),
+            equities.stream().mapToLong(e -> e.volume).average().orElse(0),
+            equities.stream().mapToLong(e -> e.volume).sum(),
+            LocalDateTime.now(),
+            "snapshot");
+        overview.topGainers = top(equities, e -> e.changePercent > 0,
+            Comparator.comparingDouble((DataIngestionService.EquityData e) -> e.changePercent).reversed());
+        overview.topLosers = top(equities, e -> e.changePercent < 0,
+            Comparator.comparingDouble((DataIngestionService.EquityData e) -> e.changePercent));
+        overview.mostActive = top(equities, e -> true,
+            Comparator.comparingLong((DataIngestionService.EquityData e) -> e.volume).reversed());
+        return overview;
+    }
+
+    private List<Mover> top(List<DataIngestionService.EquityData> equities,
+                            Predicate<DataIngestionService.EquityData> filter,
+                            Comparator<DataIngestionService.EquityData> order) {
+        List<Mover> movers = new ArrayList<>();
+        equities.stream()
+            .filter(filter)
+            .sorted(order.thenComparing(e -> e.symbol))
+            .limit(topN)
+            .forEach(e -> movers.add(new Mover(e.symbol, e.name, e.price, e.changePercent, e.volume)));
+        return movers;
+    }
+
+    public static class MarketOverview {
+        private final LocalDate tradeDate;
+        private final int symbolCount;
+        private final int advancers;
+        private final int decliners;
+        private final double averageClose;
+        private final double averageVolume;
+        private final long totalVolume;
+        private final LocalDateTime refreshedAt;
+        private final String source;
+        private List<Mover> topGainers = List.of();
+        private List<Mover> topLosers = List.of();
+        private List<Mover> mostActive = List.of();
+
+        public MarketOverview(LocalDate tradeDate, int symbolCount, int advancers, int decliners, double averageClose,
+                              double averageVolume, long totalVolume, LocalDateTime refreshedAt, String source) {
+            this.tradeDate = tradeDate;
+            this.symbolCount = symbolCount;
+            this.advancers = advancers;
+            this.decliners = decliners;
+            this.averageClose = averageClose;
+            this.averageVolume = averageVolume;
+            this.totalVolume = totalVolume;
+            this.refreshedAt = refreshedAt;
+            this.source = source;
+        }
+
+        // Getters
+        public LocalDate getTradeDate() { return tradeDate; }
+        public int getSymbolCount() { return symbolCount; }
+        public int getAdvancers() { return advancers; }
+        public int getDecliners() { return decliners; }
+        public double getAverageClose() { return averageClose; }
+        public double getAverageVolume() { return averageVolume; }
+        public long getTotalVolume() { return totalVolume; }
+        public LocalDateTime getRefreshedAt() { return refreshedAt; }
+        public String getSource() { return source; }
+        public List<Mover> getTopGainers() { return topGainers; }
+        public List<Mover> getTopLosers() { return topLosers; }
+        public List<Mover> getMostActive() { return mostActive; }
+    }
+
+    public static class Mover {
+        private final String symbol;
+        private final String name;
+        private final double closePrice;
+        private final Double changePercent;
+        private final Long volume;
+
+        public Mover(String symbol, String name, double closePrice, Double changePercent, Long volume) {
+            this.symbol = symbol;
+            this.name = name;
+            this.closePrice = closePrice;
+            this.changePercent = changePercent;
+            this.volume = volume;
+        }
+
+        // Getters
+        public String getSymbol() { return symbol; }
+        public String getName() { return name; }
+        public double getClosePrice() { return closePrice; }
+        public Double getChangePercent() { return changePercent; }
+        public Long getVolume() { return volume; }
+    }
+}
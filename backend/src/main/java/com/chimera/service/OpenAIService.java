@@ -1,31 +1,47 @@
 package com.chimera.service;
 
+import com.chimera.service.cache.SemanticChatCache;
+import com.chimera.service.llm.LlmBudget;
+import com.chimera.service.llm.LlmCallGuard;
+import com.chimera.service.llm.LlmProvider;
+import com.chimera.service.llm.PromptBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * LLM gateway behind every chat entry point (Minimal, Railway and Standalone applications).
+ *
+ * One pipeline for all of them: exact and semantic answer caches, shared budget accounting
+ * ({@link LlmBudget}), token-budgeted prompts, the call guard and a provider adapter
+ * ({@link LlmProvider}: OpenAI or the stub). Answers are stored through {@link CacheService},
+ * whose backend is Redis where available and the bounded LRU/TTL in-memory store otherwise,
+ * so no profile keeps an unbounded map.
+ */
 @Service
 public class OpenAIService {
     
     private static final Logger logger = LoggerFactory.getLogger(OpenAIService.class);
     
-    @Value("${chimera.openai.api-key}")
-    private String apiKey;
-    
     @Value("${chimera.openai.model:gpt-3.5-turbo}")
     private String model;
     
@@ -35,102 +51,440 @@ public class OpenAIService {
     @Value("${chimera.openai.temperature:0.3}")
     private double temperature;
     
-    @Value("${chimera.budget.daily-limit:5.0}")
-    private double dailyBudgetLimit;
+    @Value("${chimera.chat.batching.enabled:false}")
+    private boolean batchingEnabled;
+    
+    @Value("${chimera.chat.batching.window:50ms}")
+    private Duration batchWindow;
     
-    @Value("${chimera.budget.cost-per-1k-tokens:0.002}")
-    private double costPer1kTokens;
+    @Value("${chimera.chat.batching.max-batch-size:8}")
+    private int maxBatchSize;
     
-    @Value("${chimera.budget.enable-cost-protection:true}")
-    private boolean enableCostProtection;
+    @Value("${chimera.chat.batching.max-tokens:900}")
+    private int maxBatchTokens;
+    
+    @Value("${chimera.chat.batching.timeout:30s}")
+    private Duration batchTimeout;
     
     @Autowired
     private CacheService cacheService;
     
-    private final WebClient webClient;
+    @Autowired
+    private SemanticChatCache semanticChatCache;
+    
+    @Autowired
+    private LlmCallGuard llmCallGuard;
+    
+    @Autowired
+    private PromptBuilder promptBuilder;
+    
+    @Autowired
+    private LlmBudget llmBudget;
+    
+    private final LlmProvider llmProvider;
     private final ObjectMapper objectMapper;
+    private final Sinks.Many<PendingExplanation> batchQueue = Sinks.many().unicast().onBackpressureBuffer();
     
-    public OpenAIService() {
-        this.webClient = WebClient.builder()
-                .baseUrl("https://api.openai.com/v1")
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+    public OpenAIService(LlmProvider llmProvider) {
+        this.llmProvider = llmProvider;
         this.objectMapper = new ObjectMapper();
     }
     
+    /**
+     * Blocking variant kept for callers outside the request path
+     */
     public ChatResponse generateExplanation(String symbol, String question, String context) {
-        // Check budget first
-        if (enableCostProtection && isDailyBudgetExceeded()) {
-            logger.warn("Daily budget exceeded, using fallback response");
-            return getFallbackResponse(symbol, question);
+        return generateExplanationAsync(symbol, question, context).block();
+    }
+    
+    /**
+     * Non-blocking chat pipeline: cache, semantic cache and budget checks run on subscription,
+     * the completion call holds no thread while in flight, and post-processing (usage tracking,
+     * cache writes) is moved off the Netty event loop. Errors always resolve to the fallback.
+     */
+    public Mono<ChatResponse> generateExplanationAsync(String symbol, String question, String context) {
+        return Mono.defer(() -> {
+            // Check cache first - cached answers cost nothing, so they are served even over budget
+            String cacheKey = getCacheKey(symbol, question);
+            Object cached = cacheService.getCachedChatResponse(cacheKey);
+            if (cached instanceof ChatResponse) {
+                logger.info("Returning cached response for: {}", symbol);
+                return Mono.just((ChatResponse) cached);
+            }
+            
+            // Then look for an equivalent question that was already answered
+            Object similar = semanticChatCache.lookup(symbol, question);
+            if (similar instanceof ChatResponse) {
+                logger.info("Returning semantically cached response for: {}", symbol);
+                return Mono.just((ChatResponse) similar);
+            }
+            
+            // Without credentials every call would fail - answer from the fallback directly
+            if (!llmProvider.isConfigured()) {
+                logger.info("LLM provider {} not configured, using fallback for: {}", llmProvider.getName(), symbol);
+                return Mono.just(getFallbackResponse(symbol, question));
+            }
+            
+            // Check budget before paying for a new completion
+            if (llmBudget.isExceeded()) {
+                logger.warn("Daily budget exceeded, using fallback response");
+                return Mono.just(getFallbackResponse(symbol, question));
+            }
+            
+            return batchingEnabled
+                    ? enqueueForBatch(symbol, question, context, cacheKey)
+                    : requestCompletion(symbol, question, context, cacheKey);
+        }).onErrorResume(WebClientResponseException.class, e -> {
+            logger.error("OpenAI API error for {}: {} - {}", symbol, e.getStatusCode(), e.getResponseBodyAsString());
+            return Mono.just(getFallbackResponse(symbol, question));
+        }).onErrorResume(e -> {
+            logger.error("Error generating explanation for {}: ", symbol, e);
+            return Mono.just(getFallbackResponse(symbol, question));
+        });
+    }
+    
+    private Mono<ChatResponse> requestCompletion(String symbol, String question, String context, String cacheKey) {
+        // Build optimized prompt
+        PromptBuilder.Prompt prompt = buildOptimizedPrompt(symbol, question, context);
+        
+        // Reject or shrink the call before sending if its worst case would overrun the budget
+        int completionTokens = llmBudget.affordableCompletionTokens(prompt.getTokens());
+        if (completionTokens <= 0) {
+            logger.warn("Predicted cost for {} exceeds remaining budget, using fallback response", symbol);
+            return Mono.just(getFallbackResponse(symbol, question));
         }
         
-        // Check cache first
-        String cacheKey = getCacheKey(symbol, question);
-        Object cached = cacheService.getCachedChatResponse(cacheKey);
+        // Create request
+        Map<String, Object> request = buildChatRequest(prompt.getText(), completionTokens);
+        
+        // Make API call; a fired hedge is charged off the timer thread since the usage counter may be in Redis
+        return llmCallGuard.execute(() -> llmProvider.complete(request), llmBudget.isHedgeAffordable(),
+                        () -> Schedulers.boundedElastic().schedule(() -> llmBudget.recordHedgeLoser(prompt.getTokens(), completionTokens)))
+                .publishOn(Schedulers.boundedElastic())
+                .<ChatResponse>handle((response, sink) -> {
+                    try {
+                        // Parse response
+                        ChatResponse chatResponse = parseChatResponse(response, symbol);
+                        
+                        // Track usage and cost
+                        double cost = trackUsage(response);
+                        
+                        // Cache response
+                        cacheService.cacheChatResponse(cacheKey, chatResponse);
+                        semanticChatCache.store(symbol, question, chatResponse, cost);
+                        
+                        sink.next(chatResponse);
+                    } catch (Exception e) {
+                        sink.error(e);
+                    }
+                });
+    }
+    
+    /**
+     * Explains several symbols at once (typically the top N of one ranking). Cached answers are
+     * served directly; the rest are answered in multi-answer completions of up to
+     * max-batch-size symbols and fanned back out to per-symbol cache entries.
+     * A "{symbol}" placeholder in the question is replaced per symbol.
+     * Results are in the same order as the symbols.
+     */
+    public Mono<List<ChatResponse>> generateExplanations(List<String> symbols, String question, String context) {
+        return Mono.defer(() -> {
+            List<PendingExplanation> pending = new ArrayList<>();
+            List<PendingExplanation> misses = new ArrayList<>();
+            for (String symbol : symbols) {
+                String symbolQuestion = question.replace("{symbol}", symbol);
+                Object cached = lookupCached(symbol, symbolQuestion);
+                PendingExplanation entry = new PendingExplanation(symbol, symbolQuestion, context, getCacheKey(symbol, symbolQuestion),
+                        cached instanceof ChatResponse ? (ChatResponse) cached : null);
+                pending.add(entry);
+                if (entry.answer == null) {
+                    misses.add(entry);
+                }
+            }
+            
+            if (!misses.isEmpty() && (!llmProvider.isConfigured() || llmBudget.isExceeded())) {
+                logger.warn("LLM unavailable or over budget, using fallback responses for {} symbols", misses.size());
+                misses.forEach(p -> p.answer = getFallbackResponse(p.symbol, p.question));
+                misses.clear();
+            }
+            
+            return Flux.fromIterable(misses)
+                    .buffer(Math.max(1, maxBatchSize))
+                    .concatMap(this::completeBatch)
+                    .then(Mono.fromCallable(() -> pending.stream().map(p -> p.answer).toList()));
+        });
+    }
+    
+    private Object lookupCached(String symbol, String question) {
+        Object cached = cacheService.getCachedChatResponse(getCacheKey(symbol, question));
         if (cached instanceof ChatResponse) {
-            logger.info("Returning cached response for: {}", symbol);
-            return (ChatResponse) cached;
+            return cached;
+        }
+        return semanticChatCache.lookup(symbol, question);
+    }
+    
+    /**
+     * Parks a cache miss until the current batching window closes; the window's requests
+     * are then answered by one completion per distinct context
+     */
+    private Mono<ChatResponse> enqueueForBatch(String symbol, String question, String context, String cacheKey) {
+        PendingExplanation pending = new PendingExplanation(symbol, question, context, cacheKey, null);
+        batchQueue.emitNext(pending, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        return pending.result.asMono();
+    }
+    
+    @PostConstruct
+    void startBatching() {
+        if (!batchingEnabled) {
+            return;
+        }
+        // A failing batch must not terminate the pipeline, or every later request would wait
+        // out its timeout; its callers get the fallback instead
+        batchQueue.asFlux()
+                .bufferTimeout(Math.max(1, maxBatchSize), batchWindow)
+                .flatMap(batch -> Mono.defer(() -> completeBatch(batch))
+                        .onErrorResume(e -> {
+                            failAll(batch, e);
+                            return Mono.empty();
+                        }))
+                .subscribe(null, e -> logger.error("Explanation batching stopped: ", e));
+        logger.info("Explanation batching enabled: window {}, max {} per completion", batchWindow, maxBatchSize);
+    }
+    
+    /**
+     * Answers every still-waiting entry of a failed batch with the fallback
+     */
+    private void failAll(List<PendingExplanation> batch, Throwable error) {
+        logger.error("Explanation batch of {} failed, using fallback responses: ", batch.size(), error);
+        for (PendingExplanation pending : batch) {
+            pending.result.tryEmitValue(getFallbackResponse(pending.symbol, pending.question));
         }
+    }
+    
+    /**
+     * Answers a batch with one completion per distinct context, so an item is never answered
+     * against (or sent alongside) another request's context. Every pending entry ends up with
+     * an answer - missing or unparseable items get the fallback.
+     */
+    private Mono<Void> completeBatch(List<PendingExplanation> batch) {
+        Map<String, List<PendingExplanation>> byContext = new LinkedHashMap<>();
+        for (PendingExplanation pending : batch) {
+            byContext.computeIfAbsent(pending.context == null ? "" : pending.context, k -> new ArrayList<>()).add(pending);
+        }
+        return Flux.fromIterable(byContext.values())
+                .flatMap(this::completeGroup)
+                .then();
+    }
+    
+    /**
+     * Answers explanations sharing one context with one completion (a single request uses the
+     * ordinary prompt)
+     */
+    private Mono<Void> completeGroup(List<PendingExplanation> batch) {
+        Mono<List<ChatResponse>> answers;
+        if (batch.size() == 1) {
+            PendingExplanation only = batch.get(0);
+            answers = requestCompletion(only.symbol, only.question, only.context, only.cacheKey)
+                    .map(List::of);
+        } else {
+            logger.info("Requesting batched explanation for {} symbols", batch.size());
+            PromptBuilder.Prompt prompt = buildBatchPrompt(batch);
+            
+            // Same up-front cost check as a single completion, against the batch's worst case
+            int completionTokens = llmBudget.affordableCompletionTokens(prompt.getTokens(),
+                    Math.min(maxTokens * batch.size(), maxBatchTokens));
+            if (completionTokens <= 0) {
+                logger.warn("Predicted cost for batch of {} exceeds remaining budget, using fallback responses", batch.size());
+                answers = Mono.just(fallbacksFor(batch));
+            } else {
+                Map<String, Object> request = buildChatRequest(prompt.getText(), completionTokens);
+                answers = llmCallGuard.executeWithTimeout(() -> llmProvider.complete(request), batchTimeout)
+                        .publishOn(Schedulers.boundedElastic())
+                        .<List<ChatResponse>>handle((response, sink) -> {
+                            try {
+                                sink.next(fanOutBatch(batch, response));
+                            } catch (Exception e) {
+                                sink.error(e);
+                            }
+                        });
+            }
+        }
+        return answers
+                .onErrorResume(e -> {
+                    logger.error("Batched explanation failed for {} symbols: {}", batch.size(), e.getMessage());
+                    return Mono.just(fallbacksFor(batch));
+                })
+                .doOnNext(responses -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        PendingExplanation pending = batch.get(i);
+                        pending.answer = responses.get(i);
+                        pending.result.tryEmitValue(pending.answer);
+                    }
+                })
+                .then();
+    }
+    
+    private List<ChatResponse> fallbacksFor(List<PendingExplanation> batch) {
+        List<ChatResponse> fallbacks = new ArrayList<>();
+        for (PendingExplanation pending : batch) {
+            fallbacks.add(getFallbackResponse(pending.symbol, pending.question));
+        }
+        return fallbacks;
+    }
+    
+    private List<ChatResponse> fanOutBatch(List<PendingExplanation> batch, String response) throws Exception {
+        JsonNode root = objectMapper.readTree(response);
+        String content = root.path("choices").path(0).path("message").path("content").asText();
         
-        try {
-            // Build optimized prompt
-            String prompt = buildOptimizedPrompt(symbol, question, context);
+        // The model is asked for a bare JSON array but sometimes wraps it in a code fence
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            throw new RuntimeException("Batched response is not a JSON array");
+        }
+        Map<Integer, String> byId = new HashMap<>();
+        for (JsonNode item : objectMapper.readTree(content.substring(start, end + 1))) {
+            String answer = item.path("answer").asText("");
+            if (!answer.isEmpty()) {
+                byId.put(item.path("id").asInt(-1), answer);
+            }
+        }
+        
+        // One usage figure for the whole completion, split evenly for savings accounting
+        double cost = trackUsage(response);
+        double costPerAnswer = cost / batch.size();
+        
+        List<ChatResponse> responses = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingExplanation pending = batch.get(i);
+            String answer = byId.get(i + 1);
+            if (answer == null) {
+                logger.warn("Batched response had no answer for {}, using fallback", pending.symbol);
+                responses.add(getFallbackResponse(pending.symbol, pending.question));
+                continue;
+            }
+            ChatResponse chatResponse = buildChatResponse(answer);
+            cacheService.cacheChatResponse(pending.cacheKey, chatResponse);
+            semanticChatCache.store(pending.symbol, pending.question, chatResponse, costPerAnswer);
+            responses.add(chatResponse);
+        }
+        return responses;
+    }
+    
+    /**
+     * Streaming variant of the chat pipeline. Answer text is forwarded as delta events as soon as
+     * OpenAI produces it; a final done event carries the assembled answer with citations and the
+     * disclaimer. Cached and fallback answers are emitted as a single delta followed by done.
+     * On failure only a done event with the fallback answer is emitted, which clients treat as
+     * authoritative over any partial text already shown.
+     */
+    public Flux<ChatStreamEvent> streamExplanation(String symbol, String question, String context) {
+        return Flux.defer(() -> {
+            String cacheKey = getCacheKey(symbol, question);
+            Object cached = cacheService.getCachedChatResponse(cacheKey);
+            if (cached instanceof ChatResponse) {
+                logger.info("Returning cached response for: {}", symbol);
+                return completeStream((ChatResponse) cached);
+            }
             
-            // Create request
-            Map<String, Object> request = buildChatRequest(prompt);
+            Object similar = semanticChatCache.lookup(symbol, question);
+            if (similar instanceof ChatResponse) {
+                logger.info("Returning semantically cached response for: {}", symbol);
+                return completeStream((ChatResponse) similar);
+            }
             
-            // Make API call
-            String response = webClient.post()
-                    .uri("/chat/completions")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+            if (!llmProvider.isConfigured() || llmBudget.isExceeded()) {
+                logger.warn("LLM unavailable or over budget, using fallback response");
+                return completeStream(getFallbackResponse(symbol, question));
+            }
             
-            // Parse response
-            ChatResponse chatResponse = parseChatResponse(response, symbol);
+            PromptBuilder.Prompt prompt = buildOptimizedPrompt(symbol, question, context);
+            int completionTokens = llmBudget.affordableCompletionTokens(prompt.getTokens());
+            if (completionTokens <= 0) {
+                logger.warn("Predicted cost for {} exceeds remaining budget, using fallback response", symbol);
+                return completeStream(getFallbackResponse(symbol, question));
+            }
+            Map<String, Object> request = buildChatRequest(prompt.getText(), completionTokens);
+            request.put("stream", true);
+            request.put("stream_options", Map.of("include_usage", true));
             
-            // Track usage and cost
-            trackUsage(response);
+            StringBuilder answer = new StringBuilder();
+            AtomicInteger totalTokens = new AtomicInteger();
             
-            // Cache response
-            cacheService.cacheChatResponse(cacheKey, chatResponse);
+            // Time to first token is bounded by the adaptive timeout, gaps between chunks by the HTTP read timeout
+            Flux<ChatStreamEvent> deltas = llmCallGuard.executeStream(() -> llmProvider.stream(request))
+                    .takeWhile(data -> !"[DONE]".equals(data))
+                    .handle((data, sink) -> {
+                        try {
+                            JsonNode chunk = objectMapper.readTree(data);
+                            int tokens = chunk.path("usage").path("total_tokens").asInt(0);
+                            if (tokens > 0) {
+                                totalTokens.set(tokens);
+                            }
+                            String delta = chunk.path("choices").path(0).path("delta").path("content").asText("");
+                            if (!delta.isEmpty()) {
+                                answer.append(delta);
+                                sink.next(ChatStreamEvent.delta(delta));
+                            }
+                        } catch (Exception e) {
+                            sink.error(e);
+                        }
+                    });
             
-            return chatResponse;
+            Mono<ChatStreamEvent> done = Mono.fromCallable(() -> {
+                String content = answer.toString();
+                if (content.isEmpty()) {
+                    throw new RuntimeException("Empty response from OpenAI");
+                }
+                ChatResponse chatResponse = buildChatResponse(content);
+                
+                // Older models omit usage on streams; count locally so the budget still moves
+                int completionTokensUsed = promptBuilder.countTokens(content);
+                promptBuilder.recordUsage(prompt.getTokens(), completionTokensUsed);
+                int tokens = totalTokens.get() > 0 ? totalTokens.get() : prompt.getTokens() + completionTokensUsed;
+                double cost = llmBudget.recordUsage(tokens);
+                
+                cacheService.cacheChatResponse(cacheKey, chatResponse);
+                semanticChatCache.store(symbol, question, chatResponse, cost);
+                return ChatStreamEvent.done(chatResponse);
+            }).subscribeOn(Schedulers.boundedElastic());
             
-        } catch (WebClientResponseException e) {
-            logger.error("OpenAI API error for {}: {} - {}", symbol, e.getStatusCode(), e.getResponseBodyAsString());
-            return getFallbackResponse(symbol, question);
-        } catch (Exception e) {
-            logger.error("Error generating explanation for {}: ", symbol, e);
-            return getFallbackResponse(symbol, question);
-        }
+            return deltas.concatWith(done);
+        }).onErrorResume(e -> {
+            logger.error("Error streaming explanation for {}: ", symbol, e);
+            return Flux.just(ChatStreamEvent.done(getFallbackResponse(symbol, question)));
+        });
     }
     
-    private String buildOptimizedPrompt(String symbol, String question, String context) {
-        // Ultra-compact prompt to minimize tokens
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("You are a financial analyst. Answer briefly (<100 words) with citations.\n");
-        prompt.append("MANDATORY: End with disclaimer: 'Educational only. Not investment advice.'\n");
-        prompt.append("MANDATORY: Include 2-3 citations from: NSE, BSE, Reuters, RBI\n\n");
-        
-        if (context != null && !context.trim().isEmpty()) {
-            // Truncate context to control token usage
-            String truncatedContext = context.length() > 200 ? context.substring(0, 200) + "..." : context;
-            prompt.append("Context: ").append(truncatedContext).append("\n");
+    private Flux<ChatStreamEvent> completeStream(ChatResponse response) {
+        return Flux.just(ChatStreamEvent.delta(response.getAnswer()), ChatStreamEvent.done(response));
+    }
+    
+    private PromptBuilder.Prompt buildOptimizedPrompt(String symbol, String question, String context) {
+        // Ultra-compact prompt to minimize tokens; context is packed into whatever the token budget leaves
+        String preamble = "You are a financial analyst. Answer briefly (<100 words) with citations.\n" +
+                "MANDATORY: End with disclaimer: 'Educational only. Not investment advice.'\n" +
+                "MANDATORY: Include 2-3 citations from: NSE, BSE, Reuters, RBI\n\n";
+        return promptBuilder.build(preamble, context, symbol, question, "Question: {question}\nAnswer:");
+    }
+    
+    private PromptBuilder.Prompt buildBatchPrompt(List<PendingExplanation> batch) {
+        // Shared preamble and context paid once for the whole batch instead of once per symbol;
+        // every item of a batch has the same context (see completeBatch)
+        String preamble = "You are a financial analyst. Answer each question briefly (<100 words) with citations.\n" +
+                "MANDATORY: End each answer with disclaimer: 'Educational only. Not investment advice.'\n" +
+                "MANDATORY: Include 2-3 citations from: NSE, BSE, Reuters, RBI\n" +
+                "Reply ONLY with a JSON array: [{\"id\": 1, \"answer\": \"...\"}, ...]\n\n";
+        List<String> symbols = new ArrayList<>();
+        List<String> questions = new ArrayList<>();
+        for (PendingExplanation pending : batch) {
+            symbols.add(pending.symbol);
+            questions.add(pending.question);
         }
-        
-        prompt.append("Stock: ").append(symbol).append("\n");
-        prompt.append("Question: ").append(question).append("\n");
-        prompt.append("Answer:");
-        
-        return prompt.toString();
+        return promptBuilder.buildBatch(preamble, batch.get(0).context, symbols, questions);
     }
     
-    private Map<String, Object> buildChatRequest(String prompt) {
+    private Map<String, Object> buildChatRequest(String prompt, int maxTokens) {
         Map<String, Object> request = new HashMap<>();
         request.put("model", model);
         request.put("max_tokens", maxTokens);
@@ -155,6 +509,10 @@ public class OpenAIService {
             throw new RuntimeException("Empty response from OpenAI");
         }
         
+        return buildChatResponse(content);
+    }
+    
+    private ChatResponse buildChatResponse(String content) {
         // Extract citations (simple pattern matching)
         String[] citations = extractCitations(content);
         
@@ -199,52 +557,22 @@ public class OpenAIService {
         return Math.min(85, confidence);
     }
     
-    private void trackUsage(String response) {
+    private double trackUsage(String response) {
         try {
             JsonNode root = objectMapper.readTree(response);
-            int totalTokens = root.path("usage").path("total_tokens").asInt(0);
-            
-            if (totalTokens > 0) {
-                double cost = (totalTokens / 1000.0) * costPer1kTokens;
-                String today = LocalDate.now().toString();
-                cacheService.trackDailyUsage(today, cost);
-                
-                logger.info("API usage: {} tokens, estimated cost: ${:.4f}", totalTokens, cost);
-            }
+            JsonNode usage = root.path("usage");
+            promptBuilder.recordUsage(usage.path("prompt_tokens").asInt(0), usage.path("completion_tokens").asInt(0));
+            return llmBudget.recordUsage(usage.path("total_tokens").asInt(0));
         } catch (Exception e) {
             logger.error("Error tracking usage: ", e);
         }
-    }
-    
-    private boolean isDailyBudgetExceeded() {
-        String today = LocalDate.now().toString();
-        double dailyUsage = cacheService.getDailyUsage(today);
-        
-        if (dailyUsage >= dailyBudgetLimit) {
-            logger.warn("Daily budget exceeded: ${:.2f} >= ${:.2f}", dailyUsage, dailyBudgetLimit);
-            return true;
-        }
-        
-        return false;
+        return 0.0;
     }
     
     private ChatResponse getFallbackResponse(String symbol, String question) {
-        String fallbackAnswer;
-        
-        if (question.toLowerCase().contains("reliance")) {
-            fallbackAnswer = "Reliance Industries is a diversified conglomerate with interests in petrochemicals, oil & gas, and digital services. " +
-                    "Key factors include Jio's growth, refining margins, and petrochemical demand. Educational only. Not investment advice.";
-        } else if (question.toLowerCase().contains("tcs")) {
-            fallbackAnswer = "TCS is India's largest IT services company with strong digital transformation capabilities. " +
-                    "Key metrics include revenue growth, margin expansion, and client addition. Educational only. Not investment advice.";
-        } else {
-            fallbackAnswer = "Analysis considers multiple factors including financial performance, market position, and sector trends. " +
-                    "Our ranking model weighs returns, volatility, liquidity, and sentiment. Educational only. Not investment advice.";
-        }
-        
         return new ChatResponse(
                 "fallback",
-                fallbackAnswer,
+                generateFallbackAnswer(symbol, question),
                 new String[]{
                         "NSE Bhavcopy - " + LocalDate.now(),
                         "Company Annual Reports",
@@ -255,17 +583,51 @@ public class OpenAIService {
         );
     }
     
+    private String generateFallbackAnswer(String symbol, String question) {
+        String lowerQ = question.toLowerCase();
+        String upperSymbol = symbol != null ? symbol.toUpperCase() : "";
+        
+        if ("RELIANCE".equals(upperSymbol) || lowerQ.contains("reliance")) {
+            return "Reliance Industries is a diversified conglomerate with strong presence in petrochemicals, " +
+                   "oil refining, and digital services through Jio. Key metrics include debt reduction, " +
+                   "Retail expansion, and green energy investments. Educational only. Not investment advice.";
+        }
+        if ("TCS".equals(upperSymbol) || lowerQ.contains("tcs")) {
+            return "TCS is India's largest IT services company with consistent revenue growth and industry-leading " +
+                   "margins (25%+). Strong digital transformation capabilities and global client base provide " +
+                   "stability. Educational only. Not investment advice.";
+        }
+        if ("HDFC".equals(upperSymbol) || "HDFCBANK".equals(upperSymbol)) {
+            return "HDFC Bank maintains strong fundamentals with robust deposit growth, quality loan book, " +
+                   "and consistent profitability. Digital transformation and branch expansion support growth. " +
+                   "Educational only. Not investment advice.";
+        }
+        if ("INFY".equals(upperSymbol) || lowerQ.contains("infosys")) {
+            return "Infosys shows stable IT services growth with focus on digital technologies and cloud services. " +
+                   "Strong cash position and dividend yield appeal to conservative investors. " +
+                   "Educational only. Not investment advice.";
+        }
+        
+        if (lowerQ.contains("buy") || lowerQ.contains("sell") || lowerQ.contains("invest")) {
+            return "Investment decisions should consider individual financial goals, risk tolerance, and market conditions. " +
+                   "Our analysis provides educational insights based on quantitative metrics and market data. " +
+                   "Always consult qualified financial advisors. Educational only. Not investment advice.";
+        }
+        
+        return "Analysis considers multiple factors including financial performance, market position, and sector trends. " +
+               "Our ranking model weighs returns, volatility, liquidity, and sentiment. Educational only. Not investment advice.";
+    }
+    
     private String getCacheKey(String symbol, String question) {
         return symbol + ":" + question.replaceAll("[^a-zA-Z0-9]", "").toLowerCase();
     }
     
-    public DailyUsageStats getDailyUsageStats() {
-        String today = LocalDate.now().toString();
-        double dailyUsage = cacheService.getDailyUsage(today);
-        double remainingBudget = Math.max(0, dailyBudgetLimit - dailyUsage);
-        double usagePercent = (dailyUsage / dailyBudgetLimit) * 100;
-        
-        return new DailyUsageStats(dailyUsage, dailyBudgetLimit, remainingBudget, usagePercent);
+    public SemanticChatCache.SemanticCacheStats getSemanticCacheStats() {
+        return semanticChatCache.getStats();
+    }
+    
+    public LlmBudget.DailyUsageStats getDailyUsageStats() {
+        return llmBudget.getStats();
     }
     
     // Response classes
@@ -292,26 +654,53 @@ public class OpenAIService {
         public String getDisclaimer() { return disclaimer; }
     }
     
-    public static class DailyUsageStats {
-        private final double dailyUsage;
-        private final double dailyLimit;
-        private final double remainingBudget;
-        private final double usagePercent;
+    /**
+     * A cache miss waiting for its (possibly batched) completion
+     */
+    private static final class PendingExplanation {
+        private final String symbol;
+        private final String question;
+        private final String context;
+        private final String cacheKey;
+        private final Sinks.One<ChatResponse> result = Sinks.one();
+        private volatile ChatResponse answer;
         
-        public DailyUsageStats(double dailyUsage, double dailyLimit, double remainingBudget, double usagePercent) {
-            this.dailyUsage = dailyUsage;
-            this.dailyLimit = dailyLimit;
-            this.remainingBudget = remainingBudget;
-            this.usagePercent = usagePercent;
+        private PendingExplanation(String symbol, String question, String context,
+                                   String cacheKey, ChatResponse answer) {
+            this.symbol = symbol;
+            this.question = question;
+            this.context = context;
+            this.cacheKey = cacheKey;
+            this.answer = answer;
         }
+    }
+    
+    /**
+     * One server-sent event of a streamed answer: "delta" carries a text fragment,
+     * "done" carries the complete response
+     */
+    public static class ChatStreamEvent {
+        private final String type;
+        private final String delta;
+        private final ChatResponse response;
         
-        // Getters
-        public double getDailyUsage() { return dailyUsage; }
-        public double getDailyLimit() { return dailyLimit; }
-        public double getRemainingBudget() { return remainingBudget; }
-        public double getUsagePercent() { return usagePercent; }
+        private ChatStreamEvent(String type, String delta, ChatResponse response) {
+            this.type = type;
+            this.delta = delta;
+            this.response = response;
+        }
+        
+        public static ChatStreamEvent delta(String text) {
+            return new ChatStreamEvent("delta", text, null);
+        }
+        
+        public static ChatStreamEvent done(ChatResponse response) {
+            return new ChatStreamEvent("done", null, response);
+        }
         
-        public boolean isNearLimit() { return usagePercent > 80; }
-        public boolean isOverLimit() { return usagePercent >= 100; }
+        public String getType() { return type; }
+        public String getDelta() { return delta; }
+        public ChatResponse getResponse() { return response; }
+        public boolean isDone() { return response != null; }
     }
 }
\ No newline at end of file
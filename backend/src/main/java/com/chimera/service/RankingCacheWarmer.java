@@ -0,0 +1,217 @@
+package com.chimera.service;
+
+import com.chimera.dto.RankingRequest;
+import com.chimera.service.concurrent.TaskExecutors;
+import com.chimera.service.datasource.DbWorkload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Precomputes rankings for the most requested buckets so the first users after a deploy
+ * or an ingestion window do not pay for a cold cache.
+ *
+ * Runs on application start and after every published snapshot. Popular buckets come from
+ * CacheService access counters; the list is also persisted in the cache so a restart
+ * (with Redis) still knows what to warm. Each run resolves the snapshot version once and warms
+ * every bucket under it; work is parallel and bounded by a time budget.
+ */
+@Component
+public class RankingCacheWarmer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RankingCacheWarmer.class);
+    
+    private static final String POPULAR_BUCKETS_KEY = "warmup:rankings:popular";
+    private static final Duration POPULAR_BUCKETS_TTL = Duration.ofDays(7);
+    
+    // Flutter/Android form defaults for each risk profile - used until real traffic is observed
+    private static final List<String> DEFAULT_BUCKETS = List.of(
+        new RankingRequest(100000.0, 30, "MODERATE").getBucketKey(),
+        new RankingRequest(100000.0, 30, "CONSERVATIVE").getBucketKey(),
+        new RankingRequest(100000.0, 30, "AGGRESSIVE").getBucketKey()
+    );
+    
+    @Value("${chimera.cache.warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${chimera.cache.warmup.top-k:10}")
+    private int topK;
+    
+    @Value("${chimera.cache.warmup.parallelism:4}")
+    private int parallelism;
+    
+    @Value("${chimera.cache.warmup.time-budget:20s}")
+    private Duration timeBudget;
+    
+    private final RankingService rankingService;
+    private final DataIngestionService dataIngestionService;
+    private final CacheService cacheService;
+    
+    private final TaskExecutors taskExecutors;
+    private final ExecutorService coordinator;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    // Reason of a warm-up requested while one was running
+    private final AtomicReference<String> pendingReason = new AtomicReference<>();
+    // Only touched on the coordinator thread
+    private long lastWarmedVersion = -1;
+    
+    public RankingCacheWarmer(RankingService rankingService, DataIngestionService dataIngestionService,
+                              CacheService cacheService, TaskExecutors taskExecutors) {
+        this.rankingService = rankingService;
+        this.dataIngestionService = dataIngestionService;
+        this.cacheService = cacheService;
+        this.taskExecutors = taskExecutors;
+        this.coordinator = taskExecutors.newSingleThreadExecutor("cache-warmup");
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestWarmup("startup");
+    }
+    
+    @EventListener
+    public void onSnapshotPublished(DataIngestionService.SnapshotPublishedEvent event) {
+        requestWarmup("snapshot " + event.getSnapshotVersion());
+    }
+    
+    /**
+     * Schedules a warm-up without blocking the caller. Snapshot events are published from
+     * request threads, so the actual work always runs on the warm-up executor.
+     */
+    public void requestWarmup(String reason) {
+        if (!enabled) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            // A warm-up is in progress; run once more afterwards so the newest snapshot is covered
+            pendingReason.set(reason);
+            return;
+        }
+        coordinator.execute(() -> {
+            try {
+                String next = reason;
+                while (next != null) {
+                    warmup(next);
+                    next = pendingReason.getAndSet(null);
+                }
+            } finally {
+                running.set(false);
+                String missed = pendingReason.getAndSet(null);
+                if (missed != null) {
+                    requestWarmup(missed);
+                }
+            }
+        });
+    }
+    
+    private void warmup(String reason) {
+        List<String> buckets = selectBuckets();
+        if (buckets.isEmpty()) {
+            return;
+        }
+        
+        // Resolved before fanning out, so a stale snapshot is ingested once and all buckets
+        // are warmed under the same version
+        long snapshotVersion = DbWorkload.INGESTION.call(dataIngestionService::getSnapshotVersion);
+        if (snapshotVersion == lastWarmedVersion) {
+            // The startup run ingested the snapshot whose event queued this run
+            logger.debug("Ranking cache warm-up ({}) skipped, snapshot {} already warmed", reason, snapshotVersion);
+            return;
+        }
+        
+        long started = System.currentTimeMillis();
+        long deadline = started + timeBudget.toMillis();
+        AtomicInteger warmed = new AtomicInteger();
+        
+        ExecutorService workers = taskExecutors.newBoundedExecutor("cache-warmup-worker",
+            Math.min(parallelism, buckets.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (String bucket : buckets) {
+                futures.add(workers.submit(() -> {
+                    if (System.currentTimeMillis() >= deadline) {
+                        return;
+                    }
+                    try {
+                        DbWorkload.INGESTION.run(() -> rankingService.warmRankings(RankingRequest.fromBucketKey(bucket), snapshotVersion));
+                        warmed.incrementAndGet();
+                    } catch (Exception e) {
+                        logger.warn("Warm-up failed for bucket {}: {}", bucket, e.getMessage());
+                    }
+                }));
+            }
+            
+            for (Future<?> future : futures) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    future.get(remaining, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    // Timeouts and failures are accounted for below
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        lastWarmedVersion = snapshotVersion;
+        cacheService.put(POPULAR_BUCKETS_KEY, new ArrayList<>(buckets), POPULAR_BUCKETS_TTL);
+        logger.info("Ranking cache warm-up ({}) warmed {}/{} buckets of snapshot {} in {} ms",
+            reason, warmed.get(), buckets.size(), snapshotVersion, System.currentTimeMillis() - started);
+    }
+    
+    /**
+     * Observed top-K first, then buckets persisted by a previous run, then form defaults
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> selectBuckets() {
+        Set<String> buckets = new LinkedHashSet<>(cacheService.topAccessed(RankingService.RANKING_BUCKET_NAMESPACE, topK));
+        
+        if (buckets.size() < topK) {
+            List<String> persisted = cacheService.get(POPULAR_BUCKETS_KEY, List.class);
+            if (persisted != null) {
+                buckets.addAll(persisted);
+            }
+        }
+        if (buckets.size() < topK) {
+            buckets.addAll(DEFAULT_BUCKETS);
+        }
+        
+        List<String> valid = new ArrayList<>();
+        for (String bucket : buckets) {
+            if (valid.size() >= topK) {
+                break;
+            }
+            try {
+                RankingRequest.fromBucketKey(bucket);
+                valid.add(bucket);
+            } catch (Exception e) {
+                logger.debug("Skipping unreadable warm-up bucket: {}", bucket);
+            }
+        }
+        return valid;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+}
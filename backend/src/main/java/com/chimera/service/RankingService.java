@@ -4,18 +4,17 @@ import com.chimera.dto.RankingRequest;
 import com.chimera.dto.RankingResponse;
 import com.chimera.model.AssetRanking;
 import com.chimera.model.AssetType;
-import com.chimera.model.EquityData;
-import com.chimera.repository.AssetRankingRepository;
-import com.chimera.repository.EquityDataRepository;
+import com.chimera.service.cache.CachedValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
@@ -26,11 +25,7 @@ public class RankingService {
     
     private static final Logger logger = LoggerFactory.getLogger(RankingService.class);
     
-    @Autowired(required = false)
-    private AssetRankingRepository assetRankingRepository;
-    
-    @Autowired(required = false)
-    private EquityDataRepository equityDataRepository;
+    public static final String RANKING_BUCKET_NAMESPACE = "rankings";
     
     @Autowired
     private CacheService cacheService;
@@ -38,28 +33,50 @@ public class RankingService {
     @Autowired
     private DataIngestionService dataIngestionService;
     
-    // Cache rankings for 30 minutes
-    @Cacheable(value = "rankings", key = "#request.cacheKey")
+    @Autowired
+    private RankingSnapshotStore rankingSnapshotStore;
+    
+    // Rankings are served fresh for soft-ttl, then stale (with a background refresh) until hard-ttl
+    @Value("${chimera.cache.rankings.soft-ttl:6h}")
+    private Duration rankingSoftTtl;
+    
+    @Value("${chimera.cache.rankings.hard-ttl:24h}")
+    private Duration rankingHardTtl;
+    
     public RankingResponse generateRankings(RankingRequest request) {
-        long startTime = System.currentTimeMillis();
-        
         logger.info("Generating rankings for request: {}", request);
+        cacheService.recordAccess(RANKING_BUCKET_NAMESPACE, request.getBucketKey());
+        return serveRankings(request, null);
+    }
+    
+    /**
+     * Populate the cache for a request bucket of the given snapshot without counting it as user traffic
+     */
+    public RankingResponse warmRankings(RankingRequest request, long snapshotVersion) {
+        return serveRankings(request, snapshotVersion);
+    }
+    
+    private RankingResponse serveRankings(RankingRequest request, Long requestedVersion) {
+        long startTime = System.currentTimeMillis();
         
         try {
-            // Check cache first
-            List<AssetRanking> cachedRankings = getCachedRankings(request);
-            if (!cachedRankings.isEmpty()) {
-                return buildResponseFromCache(cachedRankings, startTime);
-            }
-            
-            // Generate new rankings
-            List<AssetRanking> rankings = computeRankings(request);
-            
-            // Save to database for caching
-            saveRankings(rankings, request);
+            // Keys are scoped to the ingestion snapshot: a new snapshot simply stops matching old entries
+            long snapshotVersion = requestedVersion != null ? requestedVersion : dataIngestionService.getSnapshotVersion();
+            CachedValue<RankingResponse> cached = cacheService.getOrLoad(
+                rankingCacheKey(snapshotVersion, request),
+                RankingResponse.class,
+                rankingSoftTtl,
+                rankingHardTtl,
+                () -> loadRankings(request, snapshotVersion)
+            );
             
-            // Build response
-            return buildResponse(rankings, startTime, false);
+            if (cached.getValue() == null) {
+                return getFallbackResponse(request, startTime);
+            }
+            if (!cached.isFromCache()) {
+                return cached.getValue();
+            }
+            return withCacheMetadata(cached, startTime);
             
         } catch (Exception e) {
             logger.error("Error generating rankings: ", e);
@@ -67,28 +84,47 @@ public class RankingService {
         }
     }
     
-    private List<AssetRanking> getCachedRankings(RankingRequest request) {
-        if (assetRankingRepository == null) {
-            logger.debug("AssetRankingRepository not available, skipping cache lookup");
-            return new ArrayList<>();
-        }
+    /**
+     * Full (uncached) ranking path. Returns null on failure so that fallback data is never cached.
+     */
+    private RankingResponse loadRankings(RankingRequest request, long snapshotVersion) {
+        long startTime = System.currentTimeMillis();
         
         try {
-            LocalDateTime cacheThreshold = LocalDateTime.now().minusMinutes(30);
+            List<AssetRanking> rankings = computeRankings(request, snapshotVersion);
+            
+            // Build response
+            RankingResponse response = buildResponse(rankings, startTime, false);
+            response.getMetadata().setSnapshotVersion(snapshotVersion);
+            return response;
             
-            return assetRankingRepository.findCachedRankings(
-                request.getAmountInr(),
-                request.getHorizonDays(),
-                request.getRiskPreference(),
-                cacheThreshold
-            );
         } catch (Exception e) {
-            logger.warn("Error accessing cached rankings: {}", e.getMessage());
-            return new ArrayList<>();
+            logger.error("Error loading rankings: ", e);
+            return null;
         }
     }
     
-    private List<AssetRanking> computeRankings(RankingRequest request) {
+    /**
+     * Cached responses are shared between requests, so metadata is copied rather than mutated.
+     */
+    private RankingResponse withCacheMetadata(CachedValue<RankingResponse> cached, long startTime) {
+        RankingResponse source = cached.getValue();
+        RankingResponse.RankingMetadata metadata = source.getMetadata().copy();
+        metadata.setCacheHit(true);
+        metadata.setStale(cached.isStale());
+        metadata.setDataAgeSeconds(cached.getAgeMillis() / 1000);
+        metadata.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+        
+        RankingResponse response = new RankingResponse(source.getRankings(), metadata);
+        response.setStatus(source.getStatus());
+        return response;
+    }
+    
+    static String rankingCacheKey(long snapshotVersion, RankingRequest request) {
+        return "rankings:v" + snapshotVersion + ":" + request.getCacheKey();
+    }
+    
+    private List<AssetRanking> computeRankings(RankingRequest request, long snapshotVersion) {
         logger.info("Computing rankings using DataIngestionService");
         
         try {
@@ -103,26 +139,32 @@ public class RankingService {
             
             logger.info("Processing {} equities and {} mutual funds", realEquityData.size(), mutualFundData.size());
             
+            // Full rankings are computed once per snapshot and risk profile; requests take the top of them
+            RankingSnapshotStore.RankingSnapshot equityRanking = rankingSnapshotStore.getOrCompute(
+                snapshotVersion, request.getRiskPreference(), AssetType.EQUITY,
+                () -> rankEquities(realEquityData, request.getRiskPreference()));
+            
             List<AssetRanking> rankings = new ArrayList<>();
-            int rank = 1;
             
             // Process equities first
-            for (DataIngestionService.EquityData equity : realEquityData) {
-                if (rank > request.getMaxResults()) break;
-                
-                AssetRanking ranking = createRankingFromRealData(equity, request, rank);
-                rankings.add(ranking);
-                rank++;
+            for (int i = 0; i < equityRanking.size() && rankings.size() < request.getMaxResults(); i++) {
+                DataIngestionService.EquityData equity = dataIngestionService.getEquityBySymbol(equityRanking.getSymbol(i));
+                if (equity != null) {
+                    rankings.add(createRankingFromRealData(equity, request, equityRanking.getScore(i), equityRanking.getConfidence(i)));
+                }
             }
             
             // Add mutual funds if there's room and user preferences allow
-            if (rank <= request.getMaxResults() && shouldIncludeMutualFunds(request)) {
-                for (DataIngestionService.MutualFundData fund : mutualFundData) {
-                    if (rank > request.getMaxResults()) break;
-                    
-                    AssetRanking ranking = createRankingFromMutualFund(fund, request, rank);
-                    rankings.add(ranking);
-                    rank++;
+            if (rankings.size() < request.getMaxResults() && shouldIncludeMutualFunds(request)) {
+                RankingSnapshotStore.RankingSnapshot fundRanking = rankingSnapshotStore.getOrCompute(
+                    snapshotVersion, request.getRiskPreference(), AssetType.MUTUAL_FUND,
+                    () -> rankMutualFunds(mutualFundData));
+                
+                for (int i = 0; i < fundRanking.size() && rankings.size() < request.getMaxResults(); i++) {
+                    DataIngestionService.MutualFundData fund = dataIngestionService.getMutualFundBySchemeCode(fundRanking.getSymbol(i));
+                    if (fund != null) {
+                        rankings.add(createRankingFromMutualFund(fund, request, fundRanking.getScore(i), fundRanking.getConfidence(i)));
+                    }
                 }
             }
             
@@ -142,21 +184,50 @@ public class RankingService {
         }
     }
     
-    private AssetRanking createRankingFromRealData(DataIngestionService.EquityData equity, RankingRequest request, int rank) {
+    /**
+     * Scores every equity for a risk profile; the result is shared by all requests of the profile
+     */
+    private RankingSnapshotStore.RankingSnapshot rankEquities(List<DataIngestionService.EquityData> equities, String riskPreference) {
+        Map<String, Double> scores = new HashMap<>();
+        for (DataIngestionService.EquityData equity : equities) {
+            scores.put(equity.symbol, calculateRealDataScore(equity, riskPreference));
+        }
+        
+        List<DataIngestionService.EquityData> ordered = new ArrayList<>(equities);
+        ordered.sort(Comparator.comparingDouble((DataIngestionService.EquityData equity) -> scores.get(equity.symbol)).reversed());
+        
+        RankingSnapshotStore.RankingSnapshot ranking = new RankingSnapshotStore.RankingSnapshot(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            DataIngestionService.EquityData equity = ordered.get(i);
+            double score = scores.get(equity.symbol);
+            ranking.set(i, equity.symbol, (float) score, (short) calculateRealDataConfidence(equity, score));
+        }
+        
+        logger.info("Ranked {} equities for {} profile", ordered.size(), riskPreference);
+        return ranking;
+    }
+    
+    private RankingSnapshotStore.RankingSnapshot rankMutualFunds(List<DataIngestionService.MutualFundData> funds) {
+        List<DataIngestionService.MutualFundData> ordered = new ArrayList<>(funds);
+        ordered.sort(Comparator.comparingDouble(this::calculateMutualFundScore).reversed());
+        
+        RankingSnapshotStore.RankingSnapshot ranking = new RankingSnapshotStore.RankingSnapshot(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            DataIngestionService.MutualFundData fund = ordered.get(i);
+            ranking.set(i, fund.schemeCode, (float) calculateMutualFundScore(fund), (short) 85); // Mutual funds are generally more predictable
+        }
+        return ranking;
+    }
+    
+    private AssetRanking createRankingFromRealData(DataIngestionService.EquityData equity, RankingRequest request,
+                                                   double score, int confidence) {
         AssetRanking ranking = new AssetRanking();
         ranking.setSymbol(equity.symbol);
         ranking.setName(equity.name);
         ranking.setLastPrice(equity.price);
         ranking.setChange(String.format("%+.2f%%", equity.changePercent));
         ranking.setAssetType(AssetType.EQUITY);
-        ranking.setRank(rank);
-        
-        // Calculate sophisticated score
-        double score = calculateRealDataScore(equity, request);
         ranking.setScore(score);
-        
-        // Calculate confidence based on data quality
-        int confidence = calculateRealDataConfidence(equity, score);
         ranking.setConfidence(confidence);
         
         // Generate recommendation
@@ -171,22 +242,16 @@ public class RankingService {
         return ranking;
     }
     
-    private AssetRanking createRankingFromMutualFund(DataIngestionService.MutualFundData fund, RankingRequest request, int rank) {
+    private AssetRanking createRankingFromMutualFund(DataIngestionService.MutualFundData fund, RankingRequest request,
+                                                     double score, int confidence) {
         AssetRanking ranking = new AssetRanking();
         ranking.setSymbol(fund.schemeCode);
         ranking.setName(fund.schemeName);
         ranking.setLastPrice(fund.nav);
         ranking.setChange(String.format("%+.2f%%", fund.changePercent));
         ranking.setAssetType(AssetType.MUTUAL_FUND);
-        ranking.setRank(rank);
-        
-        // Mutual funds typically get moderate scores (safer investments)
-        double baseScore = 0.6;
-        if (fund.changePercent > 0) baseScore += Math.min(fund.changePercent * 0.1, 0.2);
-        else baseScore += Math.max(fund.changePercent * 0.05, -0.1);
-        
-        ranking.setScore(Math.max(0.3, Math.min(0.9, baseScore)));
-        ranking.setConfidence(85); // Mutual funds are generally more predictable
+        ranking.setScore(score);
+        ranking.setConfidence(confidence);
         ranking.setRecommendation(request.getRiskPreference().equals("CONSERVATIVE") ? "BUY" : "HOLD");
         
         // Set request context
@@ -197,7 +262,16 @@ public class RankingService {
         return ranking;
     }
     
-    private double calculateRealDataScore(DataIngestionService.EquityData equity, RankingRequest request) {
+    private double calculateMutualFundScore(DataIngestionService.MutualFundData fund) {
+        // Mutual funds typically get moderate scores (safer investments)
+        double baseScore = 0.6;
+        if (fund.changePercent > 0) baseScore += Math.min(fund.changePercent * 0.1, 0.2);
+        else baseScore += Math.max(fund.changePercent * 0.05, -0.1);
+        
+        return Math.max(0.3, Math.min(0.9, baseScore));
+    }
+    
+    private double calculateRealDataScore(DataIngestionService.EquityData equity, String riskPreference) {
         double score = 0.5; // Base score
         
         try {
@@ -210,7 +284,7 @@ public class RankingService {
             score += volumeScore * 0.2;
             
             // Factor 3: Risk adjustment based on preference (25% weight)
-            double riskAdjustment = getRiskAdjustmentForReal(request.getRiskPreference(), momentum);
+            double riskAdjustment = getRiskAdjustmentForReal(riskPreference, momentum);
             score += riskAdjustment * 0.25;
             
             // Factor 4: Market cap heuristic (15% weight) - assume higher price = larger company
@@ -276,87 +350,6 @@ public class RankingService {
                request.getAmountInr() >= 100000;
     }
     
-    private double calculateScore(EquityData equity, RankingRequest request) {
-        double score = 0.5; // Base score
-        
-        try {
-            // Factor 1: Daily return (30% weight)
-            double dailyReturn = equity.getDailyReturn();
-            score += dailyReturn * 0.3;
-            
-            // Factor 2: Volume liquidity (20% weight)
-            if (equity.getTotalTradedQuantity() != null) {
-                double volumeScore = Math.min(equity.getTotalTradedQuantity() / 1000000.0, 1.0);
-                score += volumeScore * 0.2;
-            }
-            
-            // Factor 3: Price stability (25% weight)
-            if (equity.getHighPrice() != null && equity.getLowPrice() != null) {
-                double range = (equity.getHighPrice() - equity.getLowPrice()) / equity.getClosePrice();
-                double stability = Math.max(0, 1.0 - range);
-                score += stability * 0.25;
-            }
-            
-            // Factor 4: Risk adjustment based on preference (25% weight)
-            double riskAdjustment = getRiskAdjustment(request.getRiskPreference(), dailyReturn);
-            score += riskAdjustment * 0.25;
-            
-            // Normalize score to 0-1 range
-            score = Math.max(0.0, Math.min(1.0, score));
-            
-        } catch (Exception e) {
-            logger.warn("Error calculating score for {}: {}", equity.getSymbol(), e.getMessage());
-            score = 0.5; // Default score on error
-        }
-        
-        return score;
-    }
-    
-    private double getRiskAdjustment(String riskPreference, double dailyReturn) {
-        switch (riskPreference) {
-            case "CONSERVATIVE":
-                return Math.abs(dailyReturn) < 0.02 ? 0.3 : -0.2; // Prefer stable stocks
-            case "AGGRESSIVE":
-                return Math.abs(dailyReturn) > 0.05 ? 0.3 : -0.1; // Prefer volatile stocks
-            case "MODERATE":
-            default:
-                return Math.abs(dailyReturn) > 0.01 && Math.abs(dailyReturn) < 0.04 ? 0.2 : 0.0;
-        }
-    }
-    
-    private int calculateConfidence(EquityData equity, double score) {
-        int confidence = 50; // Base confidence
-        
-        try {
-            // Higher confidence for complete data
-            if (equity.getTotalTradedQuantity() != null && equity.getTotalTradedQuantity() > 0) {
-                confidence += 20;
-            }
-            
-            if (equity.getHighPrice() != null && equity.getLowPrice() != null) {
-                confidence += 15;
-            }
-            
-            if (equity.getPrevClose() != null) {
-                confidence += 15;
-            }
-            
-            // Adjust for score extremes (very high or very low scores are less confident)
-            if (score > 0.8 || score < 0.2) {
-                confidence -= 10;
-            }
-            
-            // Cap at 95% (never 100% confident in financial predictions)
-            confidence = Math.min(95, Math.max(30, confidence));
-            
-        } catch (Exception e) {
-            logger.warn("Error calculating confidence for {}: {}", equity.getSymbol(), e.getMessage());
-            confidence = 50;
-        }
-        
-        return confidence;
-    }
-    
     private String getRecommendation(double score, int confidence, RankingRequest request) {
         if (confidence < 60) {
             return "HOLD"; // Low confidence = hold
@@ -414,20 +407,6 @@ public class RankingService {
         return rankings;
     }
     
-    private void saveRankings(List<AssetRanking> rankings, RankingRequest request) {
-        if (assetRankingRepository == null) {
-            logger.debug("AssetRankingRepository not available, skipping rankings save");
-            return;
-        }
-        
-        try {
-            assetRankingRepository.saveAll(rankings);
-            logger.info("Saved {} rankings to cache", rankings.size());
-        } catch (Exception e) {
-            logger.error("Error saving rankings to cache: ", e);
-        }
-    }
-    
     private RankingResponse buildResponse(List<AssetRanking> rankings, long startTime, boolean fromCache) {
         List<RankingResponse.AssetRankingDto> rankingDtos = rankings.stream()
             .map(this::convertToDto)
@@ -443,11 +422,6 @@ public class RankingService {
         return new RankingResponse(rankingDtos, metadata);
     }
     
-    private RankingResponse buildResponseFromCache(List<AssetRanking> rankings, long startTime) {
-        logger.info("Returning {} cached rankings", rankings.size());
-        return buildResponse(rankings, startTime, true);
-    }
-    
     private RankingResponse.AssetRankingDto convertToDto(AssetRanking ranking) {
         return new RankingResponse.AssetRankingDto(
             ranking.getSymbol(),
@@ -474,19 +448,4 @@ public class RankingService {
         
         return response;
     }
-    
-    public void cleanupOldRankings() {
-        if (assetRankingRepository == null) {
-            logger.debug("AssetRankingRepository not available, skipping cleanup");
-            return;
-        }
-        
-        try {
-            LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
-            assetRankingRepository.deleteOldRankings(cutoff);
-            logger.info("Cleaned up rankings older than {}", cutoff);
-        } catch (Exception e) {
-            logger.error("Error cleaning up old rankings: ", e);
-        }
-    }
-}
\ No newline at end of file
+}
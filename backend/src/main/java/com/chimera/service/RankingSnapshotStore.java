@@ -0,0 +1,164 @@
+package com.chimera.service;
+
+import com.chimera.model.AssetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Full rankings per (snapshot version, risk profile, asset type), computed once and shared by
+ * every request in that bucket regardless of amount, horizon or result count.
+ *
+ * Rankings are kept in memory for the current snapshot and, with a datasource, persisted as a
+ * single ranking_snapshots row of parallel arrays (V5__ranking_snapshots.sql). Snapshot versions
+ * are derived from the ingested data, so other instances and restarts holding the same snapshot
+ * read that row instead of recomputing.
+ */
+@Component
+public class RankingSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingSnapshotStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, CompletableFuture<RankingSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    public RankingSnapshotStore(ObjectProvider<JdbcTemplate> jdbcTemplateProvider) {
+        this.jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+    }
+
+    /**
+     * The stored ranking of a bucket, or the computed one (stored for later requests).
+     * Concurrent requests for the same bucket wait for a single computation.
+     */
+    public RankingSnapshot getOrCompute(long snapshotVersion, String riskPreference, AssetType assetType,
+                                        Supplier<RankingSnapshot> compute) {
+        String key = snapshotVersion + "|" + riskPreference + "|" + assetType;
+        CompletableFuture<RankingSnapshot> created = new CompletableFuture<>();
+        CompletableFuture<RankingSnapshot> existing = snapshots.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        // Loading and scoring run outside the map, so other buckets are never blocked behind them
+        try {
+            RankingSnapshot snapshot = load(snapshotVersion, riskPreference, assetType);
+            if (snapshot == null) {
+                snapshot = compute.get();
+                save(snapshotVersion, riskPreference, assetType, snapshot);
+            }
+            created.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            // Let the next request retry instead of caching the failure
+            snapshots.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop rankings of older snapshots from memory; stored rows expire through RetentionService
+     */
+    @EventListener
+    public void onSnapshotPublished(DataIngestionService.SnapshotPublishedEvent event) {
+        String prefix = event.getSnapshotVersion() + "|";
+        snapshots.keySet().removeIf(key -> !key.startsWith(prefix));
+    }
+
+    private RankingSnapshot load(long snapshotVersion, String riskPreference, AssetType assetType) {
+        if (jdbcTemplate == null) {
+            return null;
+        }
+        try {
+            List<RankingSnapshot> rows = jdbcTemplate.query(
+                "SELECT symbols, scores, confidences FROM ranking_snapshots " +
+                "WHERE snapshot_version = ? AND risk_preference = ? AND asset_type = ?",
+                (rs, rowNum) -> fromArrays(rs.getArray("symbols"), rs.getArray("scores"), rs.getArray("confidences")),
+                snapshotVersion, riskPreference, assetType.name());
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (Exception e) {
+            logger.warn("Error reading ranking snapshot {} {} {}: {}", snapshotVersion, riskPreference, assetType, e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(long snapshotVersion, String riskPreference, AssetType assetType, RankingSnapshot snapshot) {
+        if (jdbcTemplate == null || snapshot.size() == 0) {
+            return;
+        }
+        Float[] scores = new Float[snapshot.size()];
+        Short[] confidences = new Short[snapshot.size()];
+        for (int i = 0; i < snapshot.size(); i++) {
+            scores[i] = snapshot.scores[i];
+            confidences[i] = snapshot.confidences[i];
+        }
+        try {
+            // Another instance may have stored the same bucket first; both computed the same ranking
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO ranking_snapshots (snapshot_version, risk_preference, asset_type, symbols, scores, " +
+                    "confidences, created_at) VALUES (?, ?, ?, ?, ?, ?, now()) ON CONFLICT DO NOTHING");
+                statement.setLong(1, snapshotVersion);
+                statement.setString(2, riskPreference);
+                statement.setString(3, assetType.name());
+                statement.setArray(4, connection.createArrayOf("text", snapshot.symbols));
+                statement.setArray(5, connection.createArrayOf("float4", scores));
+                statement.setArray(6, connection.createArrayOf("int2", confidences));
+                return statement;
+            });
+        } catch (Exception e) {
+            logger.warn("Error saving ranking snapshot {} {} {}: {}", snapshotVersion, riskPreference, assetType, e.getMessage());
+        }
+    }
+
+    private static RankingSnapshot fromArrays(Array symbolArray, Array scoreArray, Array confidenceArray) throws SQLException {
+        Object[] symbols = (Object[]) symbolArray.getArray();
+        Object[] scores = (Object[]) scoreArray.getArray();
+        Object[] confidences = (Object[]) confidenceArray.getArray();
+
+        RankingSnapshot snapshot = new RankingSnapshot(symbols.length);
+        for (int i = 0; i < symbols.length; i++) {
+            snapshot.set(i, (String) symbols[i], ((Number) scores[i]).floatValue(), ((Number) confidences[i]).shortValue());
+        }
+        return snapshot;
+    }
+
+    /**
+     * A ranking as parallel arrays ordered by descending score
+     */
+    public static class RankingSnapshot {
+        private final String[] symbols;
+        private final float[] scores;
+        private final short[] confidences;
+
+        public RankingSnapshot(int size) {
+            this.symbols = new String[size];
+            this.scores = new float[size];
+            this.confidences = new short[size];
+        }
+
+        public void set(int index, String symbol, float score, short confidence) {
+            symbols[index] = symbol;
+            scores[index] = score;
+            confidences[index] = confidence;
+        }
+
+        public int size() { return symbols.length; }
+        public String getSymbol(int index) { return symbols[index]; }
+        // Scores are stored as real; rounding keeps float artifacts (0.800000011...) out of responses
+        public double getScore(int index) { return Math.round(scores[index] * 1_000_000d) / 1_000_000d; }
+        public int getConfidence(int index) { return confidences[index]; }
+    }
+}
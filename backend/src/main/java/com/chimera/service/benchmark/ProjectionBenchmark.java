@@ -0,0 +1,134 @@
+package com.chimera.service.benchmark;
+
+import com.chimera.model.EquityData;
+import com.chimera.repository.EquityDataRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the serving queries as managed entities in a read-write transaction (the old
+ * path) against the read-only projections the repositories now return.
+ *
+ * Run against a populated database with chimera.benchmark.projections.enabled=true; results
+ * are logged once at startup, per query: mean and p99 latency, and bytes allocated by the
+ * calling thread (query, hydration, persistence-context snapshots and the flush dirty-check).
+ */
+@Component
+@ConditionalOnProperty(name = "chimera.benchmark.projections.enabled", havingValue = "true")
+public class ProjectionBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionBenchmark.class);
+
+    @Value("${chimera.benchmark.projections.warmup-iterations:200}")
+    private int warmupIterations;
+
+    @Value("${chimera.benchmark.projections.iterations:1000}")
+    private int iterations;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final EquityDataRepository equityDataRepository;
+    private final TransactionTemplate readWrite;
+
+    public ProjectionBenchmark(EquityDataRepository equityDataRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.equityDataRepository = equityDataRepository;
+        this.readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDate tradeDate = equityDataRepository.findLatestTradingDate();
+
+        if (tradeDate == null) {
+            logger.warn("Projection benchmark skipped: needs equity data");
+            return;
+        }
+
+        compare("findTopGainersByDate",
+            () -> entityManager.createQuery(
+                    "SELECT ed FROM EquityData ed WHERE ed.tradeDate = :date AND ed.prevClose IS NOT NULL AND " +
+                    "ed.prevClose > 0 AND ((ed.closePrice - ed.prevClose) / ed.prevClose) > 0 " +
+                    "ORDER BY ((ed.closePrice - ed.prevClose) / ed.prevClose) DESC", EquityData.class)
+                .setParameter("date", tradeDate)
+                .getResultList().size(),
+            () -> equityDataRepository.findTopGainersByDate(tradeDate).size());
+
+        compare("findHighVolumeStocks",
+            () -> entityManager.createQuery(
+                    "SELECT ed FROM EquityData ed WHERE ed.tradeDate = :date AND ed.totalTradedQuantity IS NOT NULL " +
+                    "ORDER BY ed.totalTradedQuantity DESC", EquityData.class)
+                .setParameter("date", tradeDate)
+                .getResultList().size(),
+            () -> equityDataRepository.findHighVolumeStocks(tradeDate).size());
+    }
+
+    private void compare(String query, Supplier<Integer> entityQuery, Supplier<Integer> projectionQuery) {
+        Result entities = measure(() -> readWrite.execute(status -> entityQuery.get()));
+        Result projections = measure(projectionQuery);
+
+        logger.info("{} ({} rows): entities mean {} us, p99 {} us, {} KB/query | projections mean {} us, p99 {} us, {} KB/query | allocation -{}%, latency -{}%",
+            query, projections.rows,
+            entities.meanMicros, entities.p99Micros, entities.allocatedBytes / 1024,
+            projections.meanMicros, projections.p99Micros, projections.allocatedBytes / 1024,
+            saving(entities.allocatedBytes, projections.allocatedBytes), saving(entities.meanMicros, projections.meanMicros));
+    }
+
+    private Result measure(Supplier<Integer> query) {
+        for (int i = 0; i < warmupIterations; i++) {
+            query.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long[] latencies = new long[iterations];
+        int rows = 0;
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            rows = query.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(latencies);
+        long mean = Arrays.stream(latencies).sum() / iterations / 1000;
+        long p99 = latencies[Math.min(iterations - 1, (int) (iterations * 0.99))] / 1000;
+        return new Result(rows, mean, p99, allocated / iterations);
+    }
+
+    private static long saving(long before, long after) {
+        return before > 0 ? Math.round((before - after) * 100.0 / before) : 0;
+    }
+
+    private static class Result {
+        private final int rows;
+        private final long meanMicros;
+        private final long p99Micros;
+        private final long allocatedBytes;
+
+        Result(int rows, long meanMicros, long p99Micros, long allocatedBytes) {
+            this.rows = rows;
+            this.meanMicros = meanMicros;
+            this.p99Micros = p99Micros;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.chimera.service.cache;
+
+import java.time.Duration;
+
+/**
+ * Storage backend used by {@link com.chimera.service.CacheService}.
+ * Implementations must be thread-safe and must never throw for ordinary cache misses.
+ */
+public interface CacheBackend {
+
+    /**
+     * Short backend name used in logs and metric tags (e.g. "redis", "memory")
+     */
+    String getName();
+
+    /**
+     * Metrics sink shared with CacheService so hit/miss and eviction counters carry the same tags
+     */
+    CacheMetrics getMetrics();
+
+    void put(String key, Object value, Duration ttl);
+
+    /**
+     * Returns the cached value or null when absent or expired
+     */
+    Object get(String key);
+
+    boolean exists(String key);
+
+    void delete(String key);
+
+    /**
+     * Deletes all keys matching a glob pattern ("rankings:*") and returns how many were removed
+     */
+    long deletePattern(String pattern);
+
+    /**
+     * Atomically adds delta to a numeric key, creating it at delta when absent
+     */
+    long increment(String key, long delta);
+
+    /**
+     * Current value of a key written by increment, or 0 when absent. Counters are plain
+     * integers in the store, so they must not be read back through get()
+     */
+    long getCounter(String key);
+
+    void expire(String key, Duration ttl);
+
+    /**
+     * Counts keys matching a glob pattern - intended for stats endpoints, not hot paths
+     */
+    long countKeys(String pattern);
+}
@@ -0,0 +1,82 @@
+package com.chimera.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Selects the cache backend for the active profile.
+ *
+ * chimera.cache.backend:
+ *   redis  - require a RedisConnectionFactory (fails fast if Redis auto-configuration is excluded)
+ *   memory - always use the bounded in-memory store
+ *   auto   - Redis when a RedisConnectionFactory exists, otherwise in-memory (default)
+ *
+ * The backend builds its own RedisTemplate from the connection factory: Spring Boot only
+ * auto-configures RedisTemplate<Object, Object> and StringRedisTemplate, neither of which
+ * satisfies a RedisTemplate<String, Object> dependency.
+ */
+@Configuration
+public class CacheBackendConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheBackendConfiguration.class);
+
+    @Bean
+    public CacheBackend cacheBackend(@Value("${chimera.cache.backend:auto}") String backend,
+                                     @Value("${chimera.cache.memory.max-entries:10000}") int maxEntries,
+                                     ObjectProvider<RedisConnectionFactory> connectionFactoryProvider,
+                                     ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        RedisConnectionFactory connectionFactory = connectionFactoryProvider.getIfAvailable();
+
+        switch (backend.trim().toLowerCase()) {
+            case "redis":
+                if (connectionFactory == null) {
+                    throw new IllegalStateException(
+                        "chimera.cache.backend=redis but no RedisConnectionFactory is configured for this profile");
+                }
+                return redisBackend(connectionFactory, registry);
+            case "memory":
+                return memoryBackend(maxEntries, registry);
+            case "auto":
+            default:
+                return connectionFactory != null
+                    ? redisBackend(connectionFactory, registry)
+                    : memoryBackend(maxEntries, registry);
+        }
+    }
+
+    private CacheBackend redisBackend(RedisConnectionFactory connectionFactory, MeterRegistry registry) {
+        logger.info("Cache backend: Redis");
+        return new RedisCacheBackend(redisTemplate(connectionFactory), new StringRedisTemplate(connectionFactory),
+            new CacheMetrics(registry, "redis"));
+    }
+
+    /**
+     * String keys (readable in redis-cli, matchable by KEYS patterns) and JDK-serialized values
+     */
+    static RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.java());
+        template.setHashValueSerializer(RedisSerializer.java());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    private CacheBackend memoryBackend(int maxEntries, MeterRegistry registry) {
+        logger.info("Cache backend: in-memory (max {} entries)", maxEntries);
+        return new InMemoryCacheBackend(maxEntries, new CacheMetrics(registry, "memory"));
+    }
+}
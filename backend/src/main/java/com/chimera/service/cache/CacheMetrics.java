@@ -0,0 +1,69 @@
+package com.chimera.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hit/miss/eviction counters shared by every cache backend so that dashboards
+ * look the same whether Redis or the in-memory store is active.
+ *
+ * Meters:
+ *   chimera.cache.gets{backend, region, result=hit|miss}
+ *   chimera.cache.evictions{backend, region, cause=expired|size|explicit}
+ */
+public class CacheMetrics {
+
+    private final MeterRegistry registry;
+    private final String backend;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public CacheMetrics(MeterRegistry registry, String backend) {
+        this.registry = registry;
+        this.backend = backend;
+    }
+
+    public void recordHit(String key) {
+        counter("chimera.cache.gets", regionOf(key), "result", "hit").increment();
+    }
+
+    public void recordMiss(String key) {
+        counter("chimera.cache.gets", regionOf(key), "result", "miss").increment();
+    }
+
+    public void recordEviction(String key, String cause) {
+        counter("chimera.cache.evictions", regionOf(key), "cause", cause).increment();
+    }
+
+    public void recordEvictions(String key, String cause, long count) {
+        if (count > 0) {
+            counter("chimera.cache.evictions", regionOf(key), "cause", cause).increment(count);
+        }
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    private Counter counter(String name, String region, String tagKey, String tagValue) {
+        String id = name + "|" + region + "|" + tagValue;
+        return counters.computeIfAbsent(id, k -> Counter.builder(name)
+                .tag("backend", backend)
+                .tag("region", region)
+                .tag(tagKey, tagValue)
+                .register(registry));
+    }
+
+    /**
+     * Region is the key prefix before the first ':' ("rankings:abc" -> "rankings")
+     */
+    static String regionOf(String key) {
+        if (key == null) {
+            return "unknown";
+        }
+        int idx = key.indexOf(':');
+        return idx > 0 ? key.substring(0, idx) : "default";
+    }
+}
@@ -0,0 +1,28 @@
+package com.chimera.service.cache;
+
+/**
+ * Result of a stale-while-revalidate lookup: the value plus how old it is.
+ */
+public class CachedValue<T> {
+
+    private final T value;
+    private final long ageMillis;
+    private final boolean fromCache;
+    private final boolean stale;
+
+    public CachedValue(T value, long ageMillis, boolean fromCache, boolean stale) {
+        this.value = value;
+        this.ageMillis = ageMillis;
+        this.fromCache = fromCache;
+        this.stale = stale;
+    }
+
+    public static <T> CachedValue<T> computed(T value) {
+        return new CachedValue<>(value, 0, false, false);
+    }
+
+    public T getValue() { return value; }
+    public long getAgeMillis() { return ageMillis; }
+    public boolean isFromCache() { return fromCache; }
+    public boolean isStale() { return stale; }
+}
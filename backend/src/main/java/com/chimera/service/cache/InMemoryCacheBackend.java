@@ -0,0 +1,206 @@
+package com.chimera.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded, TTL-aware in-memory cache for profiles that run without Redis (Railway, standalone).
+ *
+ * Entries expire lazily on read and during sweeps. When the entry count exceeds maxEntries,
+ * expired entries are dropped first and then the least recently accessed ones until the
+ * store is back under 90% of capacity, so a sweep is amortised over many puts.
+ */
+public class InMemoryCacheBackend implements CacheBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryCacheBackend.class);
+
+    private final Map<String, Entry> store = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private final int maxEntries;
+    private final CacheMetrics metrics;
+
+    public InMemoryCacheBackend(int maxEntries, CacheMetrics metrics) {
+        this.maxEntries = Math.max(16, maxEntries);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void put(String key, Object value, Duration ttl) {
+        store.put(key, new Entry(value, expiryFor(ttl)));
+        if (store.size() > maxEntries) {
+            sweep();
+        }
+    }
+
+    @Override
+    public Object get(String key) {
+        Entry entry = liveEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccessNanos = System.nanoTime();
+        return entry.value;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return liveEntry(key) != null;
+    }
+
+    @Override
+    public void delete(String key) {
+        if (store.remove(key) != null) {
+            metrics.recordEviction(key, "explicit");
+        }
+    }
+
+    @Override
+    public long deletePattern(String pattern) {
+        Pattern regex = globToRegex(pattern);
+        long removed = 0;
+        for (String key : store.keySet()) {
+            if (regex.matcher(key).matches() && store.remove(key) != null) {
+                removed++;
+            }
+        }
+        metrics.recordEvictions(pattern, "explicit", removed);
+        return removed;
+    }
+
+    @Override
+    public long increment(String key, long delta) {
+        Entry updated = store.compute(key, (k, current) -> {
+            if (current == null || current.isExpired(System.nanoTime())) {
+                return new Entry(delta, Long.MAX_VALUE);
+            }
+            long base = current.value instanceof Number ? ((Number) current.value).longValue() : 0L;
+            return new Entry(base + delta, current.expiresAtNanos);
+        });
+        return ((Number) updated.value).longValue();
+    }
+
+    @Override
+    public long getCounter(String key) {
+        Entry entry = liveEntry(key);
+        return entry != null && entry.value instanceof Number ? ((Number) entry.value).longValue() : 0L;
+    }
+
+    @Override
+    public void expire(String key, Duration ttl) {
+        store.computeIfPresent(key, (k, current) -> new Entry(current.value, expiryFor(ttl)));
+    }
+
+    @Override
+    public long countKeys(String pattern) {
+        Pattern regex = globToRegex(pattern);
+        long now = System.nanoTime();
+        return store.entrySet().stream()
+                .filter(e -> !e.getValue().isExpired(now) && regex.matcher(e.getKey()).matches())
+                .count();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    private Entry liveEntry(String key) {
+        Entry entry = store.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            if (store.remove(key, entry)) {
+                metrics.recordEviction(key, "expired");
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private void sweep() {
+        // Only one thread sweeps at a time; others keep serving
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            store.forEach((key, entry) -> {
+                if (entry.isExpired(now) && store.remove(key, entry)) {
+                    metrics.recordEviction(key, "expired");
+                }
+            });
+
+            int target = (int) (maxEntries * 0.9);
+            int excess = store.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+
+            List<Map.Entry<String, Entry>> candidates = new ArrayList<>(store.entrySet());
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccessNanos));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                Map.Entry<String, Entry> victim = candidates.get(i);
+                if (store.remove(victim.getKey(), victim.getValue())) {
+                    metrics.recordEviction(victim.getKey(), "size");
+                }
+            }
+            logger.debug("In-memory cache sweep evicted up to {} entries, size now {}", excess, store.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static long expiryFor(Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return Long.MAX_VALUE;
+        }
+        return System.nanoTime() + ttl.toNanos();
+    }
+
+    static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAtNanos;
+        private volatile long lastAccessNanos;
+
+        private Entry(Object value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.lastAccessNanos = System.nanoTime();
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAtNanos != Long.MAX_VALUE && now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.chimera.service.cache;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis-backed cache used when a RedisConnectionFactory is available (full/local profile).
+ * Expiry and memory-pressure evictions happen inside Redis and are not visible here,
+ * so only explicit deletes are reported as evictions.
+ */
+public class RedisCacheBackend implements CacheBackend {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    // INCRBY stores counters as plain integer strings, which the value serializer cannot read
+    private final StringRedisTemplate counterTemplate;
+    private final CacheMetrics metrics;
+
+    public RedisCacheBackend(RedisTemplate<String, Object> redisTemplate, StringRedisTemplate counterTemplate,
+                             CacheMetrics metrics) {
+        this.redisTemplate = redisTemplate;
+        this.counterTemplate = counterTemplate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return "redis";
+    }
+
+    @Override
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void put(String key, Object value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Object get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        if (Boolean.TRUE.equals(redisTemplate.delete(key))) {
+            metrics.recordEviction(key, "explicit");
+        }
+    }
+
+    @Override
+    public long deletePattern(String pattern) {
+        Set<String> keys = redisTemplate.keys(pattern);
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        Long deleted = redisTemplate.delete(keys);
+        long count = deleted != null ? deleted : 0;
+        metrics.recordEvictions(pattern, "explicit", count);
+        return count;
+    }
+
+    @Override
+    public long increment(String key, long delta) {
+        Long result = redisTemplate.opsForValue().increment(key, delta);
+        return result != null ? result : 0;
+    }
+
+    @Override
+    public long getCounter(String key) {
+        String value = counterTemplate.opsForValue().get(key);
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    @Override
+    public void expire(String key, Duration ttl) {
+        redisTemplate.expire(key, ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long countKeys(String pattern) {
+        Set<String> keys = redisTemplate.keys(pattern);
+        return keys != null ? keys.size() : 0;
+    }
+}
@@ -0,0 +1,380 @@
+package com.chimera.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Similarity cache for chat answers.
+ *
+ * Questions are reduced to a sequence of normalized tokens (lower-cased, punctuation and
+ * filler words removed, plural 's' stripped), so "Why is TCS ranked high?" and "why is tcs
+ * ranked so high" share a fingerprint. Lookups first try the exact fingerprint, then the
+ * closest entry for the same symbol by Jaccard similarity above the configured threshold.
+ *
+ * Similarity is computed over tokens plus adjacent-token bigrams, and a fuzzy match must use
+ * the same negation and comparison words in the same order, so "why is TCS ranked higher than
+ * INFY" never answers "why is INFY ranked higher than TCS" or "why is TCS not ranked high".
+ *
+ * Buckets are per symbol and bounded, and so is the number of symbols, so the fuzzy scan
+ * stays small and arbitrary symbols in requests cannot grow the cache without limit.
+ */
+@Component
+public class SemanticChatCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticChatCache.class);
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "an", "the", "is", "are", "was", "were", "be", "been", "so", "very", "really",
+        "do", "does", "did", "of", "to", "in", "on", "for", "and", "or", "it", "its", "this",
+        "that", "me", "my", "i", "you", "your", "please", "can", "could", "would", "should",
+        "tell", "about", "much", "just", "currently", "now"
+    );
+
+    // Words that flip or direct the meaning of a question; fuzzy matches must agree on them
+    private static final Set<String> POLARITY_WORDS = Set.of(
+        "not", "no", "never", "without", "than", "vs", "versus", "higher", "lower", "better",
+        "worse", "more", "less", "above", "below", "over", "under", "up", "down"
+    );
+
+    @Value("${chimera.chat.semantic-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chimera.chat.semantic-cache.similarity-threshold:0.8}")
+    private double similarityThreshold;
+
+    @Value("${chimera.chat.semantic-cache.max-entries-per-symbol:200}")
+    private int maxEntriesPerSymbol;
+
+    @Value("${chimera.chat.semantic-cache.max-symbols:2000}")
+    private int maxSymbols;
+
+    @Value("${chimera.chat.semantic-cache.ttl:12h}")
+    private Duration ttl;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong similarHits = new AtomicLong();
+    private final DoubleAdder dollarsSaved = new DoubleAdder();
+
+    private final Counter hitCounter;
+    private final Counter similarHitCounter;
+    private final Counter missCounter;
+    private final Counter savedCounter;
+
+    public SemanticChatCache(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        this.hitCounter = Counter.builder("chimera.chat.semantic_cache.lookups").tag("result", "exact_hit").register(registry);
+        this.similarHitCounter = Counter.builder("chimera.chat.semantic_cache.lookups").tag("result", "similar_hit").register(registry);
+        this.missCounter = Counter.builder("chimera.chat.semantic_cache.lookups").tag("result", "miss").register(registry);
+        this.savedCounter = Counter.builder("chimera.chat.semantic_cache.saved_usd").register(registry);
+    }
+
+    /**
+     * Returns a cached answer for an equivalent question about the same symbol, or null
+     */
+    public Object lookup(String symbol, String question) {
+        if (!enabled || question == null) {
+            return null;
+        }
+        lookups.incrementAndGet();
+
+        Bucket bucket = buckets.get(bucketKey(symbol));
+        Question key = Question.of(question);
+        Match match = bucket != null ? bucket.find(key, similarityThreshold, System.currentTimeMillis()) : null;
+
+        if (match == null) {
+            missCounter.increment();
+            return null;
+        }
+
+        if (match.similarity >= 1.0) {
+            exactHits.incrementAndGet();
+            hitCounter.increment();
+        } else {
+            similarHits.incrementAndGet();
+            similarHitCounter.increment();
+            logger.debug("Semantic cache hit for {} (similarity {})", symbol, String.format("%.2f", match.similarity));
+        }
+        dollarsSaved.add(match.entry.cost);
+        savedCounter.increment(match.entry.cost);
+        return match.entry.answer;
+    }
+
+    /**
+     * Stores an answer together with what it cost to produce, so later hits can report savings
+     */
+    public void store(String symbol, String question, Object answer, double cost) {
+        if (!enabled || question == null || answer == null) {
+            return;
+        }
+        Question key = Question.of(question);
+        if (key.features.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String bucketKey = bucketKey(symbol);
+        if (!buckets.containsKey(bucketKey) && buckets.size() >= maxSymbols) {
+            evictBucket(now);
+        }
+        buckets.computeIfAbsent(bucketKey, k -> new Bucket())
+               .add(new Entry(key, answer, Math.max(0, cost), now + ttl.toMillis()), maxEntriesPerSymbol, now);
+    }
+
+    /**
+     * Makes room for a new symbol: drops buckets whose entries have all expired, or failing
+     * that the bucket written to least recently. Only runs when a new symbol arrives at the cap.
+     */
+    private void evictBucket(long now) {
+        buckets.values().removeIf(bucket -> bucket.isExpired(now));
+        if (buckets.size() < maxSymbols) {
+            return;
+        }
+        buckets.entrySet().stream()
+               .min((a, b) -> Long.compare(a.getValue().lastStoredMillis, b.getValue().lastStoredMillis))
+               .ifPresent(oldest -> buckets.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+
+    public SemanticCacheStats getStats() {
+        long total = lookups.get();
+        long hits = exactHits.get() + similarHits.get();
+        int entries = buckets.values().stream().mapToInt(Bucket::size).sum();
+        return new SemanticCacheStats(total, exactHits.get(), similarHits.get(),
+                total > 0 ? (double) hits / total : 0.0, dollarsSaved.sum(), entries);
+    }
+
+    /**
+     * Normalized token set of a text, ignoring word order
+     */
+    public static Set<String> normalize(String question) {
+        return new TreeSet<>(tokenize(question));
+    }
+
+    /**
+     * Normalized tokens in question order; "n't" is expanded so "isn't" keeps its negation
+     */
+    static List<String> tokenize(String question) {
+        List<String> tokens = new ArrayList<>();
+        for (String raw : question.toLowerCase().replace("n't", " not").split("[^a-z0-9]+")) {
+            if (raw.isEmpty() || STOPWORDS.contains(raw)) {
+                continue;
+            }
+            String token = raw.length() > 3 && raw.endsWith("s") && !raw.endsWith("ss")
+                    ? raw.substring(0, raw.length() - 1)
+                    : raw;
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 1.0;
+        }
+        int intersection = 0;
+        for (String token : a) {
+            if (b.contains(token)) {
+                intersection++;
+            }
+        }
+        int union = a.size() + b.size() - intersection;
+        return union == 0 ? 0.0 : (double) intersection / union;
+    }
+
+    private static String bucketKey(String symbol) {
+        return symbol == null || symbol.isBlank() ? "GENERAL" : symbol.trim().toUpperCase();
+    }
+
+    /**
+     * Comparable form of a question: the ordered fingerprint for exact hits, tokens plus
+     * bigrams for similarity, and the negation/comparison words that must agree
+     */
+    private static final class Question {
+        private final String fingerprint;
+        private final Set<String> features;
+        private final List<String> polarity;
+
+        private Question(String fingerprint, Set<String> features, List<String> polarity) {
+            this.fingerprint = fingerprint;
+            this.features = features;
+            this.polarity = polarity;
+        }
+
+        static Question of(String question) {
+            List<String> tokens = tokenize(question);
+            Set<String> features = new HashSet<>(tokens);
+            List<String> polarity = new ArrayList<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (i > 0) {
+                    features.add(tokens.get(i - 1) + ">" + tokens.get(i));
+                }
+                if (POLARITY_WORDS.contains(tokens.get(i))) {
+                    polarity.add(tokens.get(i));
+                }
+            }
+            return new Question(String.join(" ", tokens), features, polarity);
+        }
+    }
+
+    private static final class Entry {
+        private final Question question;
+        private final Object answer;
+        private final double cost;
+        private final long expiresAtMillis;
+
+        private Entry(Question question, Object answer, double cost, long expiresAtMillis) {
+            this.question = question;
+            this.answer = answer;
+            this.cost = cost;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class Match {
+        private final Entry entry;
+        private final double similarity;
+
+        private Match(Entry entry, double similarity) {
+            this.entry = entry;
+            this.similarity = similarity;
+        }
+    }
+
+    /**
+     * Guarded by a ReentrantLock rather than synchronized so virtual threads are not pinned
+     * to their carrier while scanning a bucket.
+     */
+    private static final class Bucket {
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastStoredMillis;
+
+        void add(Entry entry, int maxEntries, long now) {
+            lock.lock();
+            try {
+                lastStoredMillis = now;
+                entries.removeIf(e -> e.question.fingerprint.equals(entry.question.fingerprint));
+                entries.addFirst(entry);
+                while (entries.size() > maxEntries) {
+                    entries.removeLast();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Match find(Question question, double threshold, long now) {
+            Entry best = null;
+            double bestSimilarity = 0.0;
+
+            lock.lock();
+            try {
+                Iterator<Entry> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (entry.expiresAtMillis <= now) {
+                        iterator.remove();
+                        continue;
+                    }
+                    if (entry.question.fingerprint.equals(question.fingerprint)) {
+                        return new Match(entry, 1.0);
+                    }
+                    if (!entry.question.polarity.equals(question.polarity)) {
+                        continue;
+                    }
+                    double similarity = jaccard(question.features, entry.question.features);
+                    if (similarity > bestSimilarity) {
+                        bestSimilarity = similarity;
+                        best = entry;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return best != null && bestSimilarity >= threshold ? new Match(best, bestSimilarity) : null;
+        }
+
+        boolean isExpired(long now) {
+            lock.lock();
+            try {
+                entries.removeIf(e -> e.expiresAtMillis <= now);
+                return entries.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public static class SemanticCacheStats {
+        private final long lookups;
+        private final long exactHits;
+        private final long similarHits;
+        private final double hitRatio;
+        private final double dollarsSaved;
+        private final int entries;
+
+        public SemanticCacheStats(long lookups, long exactHits, long similarHits,
+                                  double hitRatio, double dollarsSaved, int entries) {
+            this.lookups = lookups;
+            this.exactHits = exactHits;
+            this.similarHits = similarHits;
+            this.hitRatio = hitRatio;
+            this.dollarsSaved = dollarsSaved;
+            this.entries = entries;
+        }
+
+        public long getLookups() { return lookups; }
+        public long getExactHits() { return exactHits; }
+        public long getSimilarHits() { return similarHits; }
+        public double getHitRatio() { return hitRatio; }
+        public double getDollarsSaved() { return dollarsSaved; }
+        public int getEntries() { return entries; }
+
+        @Override
+        public String toString() {
+            return "SemanticCacheStats{" +
+                    "lookups=" + lookups +
+                    ", exactHits=" + exactHits +
+                    ", similarHits=" + similarHits +
+                    ", hitRatio=" + String.format("%.3f", hitRatio) +
+                    ", dollarsSaved=" + String.format("%.4f", dollarsSaved) +
+                    ", entries=" + entries +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.chimera.service.cache;
+
+import java.io.Serializable;
+
+/**
+ * Cache envelope that remembers when a value was computed, so readers can tell
+ * fresh entries from stale ones independently of the backend's own expiry.
+ */
+public class TimestampedEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Object value;
+    private final long storedAtMillis;
+
+    public TimestampedEntry(Object value, long storedAtMillis) {
+        this.value = value;
+        this.storedAtMillis = storedAtMillis;
+    }
+
+    public Object getValue() { return value; }
+    public long getStoredAtMillis() { return storedAtMillis; }
+
+    public long ageMillis(long nowMillis) {
+        return Math.max(0, nowMillis - storedAtMillis);
+    }
+}
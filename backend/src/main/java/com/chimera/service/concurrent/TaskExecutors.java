@@ -0,0 +1,60 @@
+package com.chimera.service.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the application's background executors (cache refresh, warm-up, ingestion, LLM work)
+ * for the configured execution mode.
+ *
+ * spring.threads.virtual.enabled switches Tomcat request handling to virtual threads (handled by
+ * Spring Boot) and, through this factory, our own pools as well. Pool sizes still bound how many
+ * tasks run at once, since the limit protects downstream resources (DB, OpenAI budget) rather
+ * than threads. Platform pools use daemon threads so they never block shutdown.
+ */
+@Component
+public class TaskExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutors.class);
+
+    private final boolean virtual;
+
+    public TaskExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        this.virtual = virtual;
+        logger.info("Background executors use {} threads", virtual ? "virtual" : "platform");
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Executor running at most {@code concurrency} tasks at a time
+     */
+    public ExecutorService newBoundedExecutor(String name, int concurrency) {
+        return Executors.newFixedThreadPool(Math.max(1, concurrency), threadFactory(name));
+    }
+
+    public ExecutorService newSingleThreadExecutor(String name) {
+        return Executors.newSingleThreadExecutor(threadFactory(name));
+    }
+
+    public ThreadFactory threadFactory(String name) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name + "-", 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
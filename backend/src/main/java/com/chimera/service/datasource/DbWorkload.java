@@ -0,0 +1,44 @@
+package com.chimera.service.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Workload a thread's database connections are accounted to by WorkloadBulkheadDataSource.
+ * Work that is not explicitly marked (web requests, startup) counts as SERVING.
+ */
+public enum DbWorkload {
+    SERVING,
+    INGESTION,
+    MAINTENANCE;
+
+    private static final ThreadLocal<DbWorkload> CURRENT = new ThreadLocal<>();
+
+    public static DbWorkload current() {
+        DbWorkload workload = CURRENT.get();
+        return workload != null ? workload : SERVING;
+    }
+
+    /**
+     * Run the task with its connections accounted to this workload
+     */
+    public void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> T call(Supplier<T> task) {
+        DbWorkload previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
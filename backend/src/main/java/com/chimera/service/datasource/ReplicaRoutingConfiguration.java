@@ -0,0 +1,103 @@
+package com.chimera.service.datasource;
+
+import com.chimera.service.concurrent.TaskExecutors;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary and replica connection pools behind a read/write routing DataSource, enabled with
+ * chimera.datasource.replica.enabled.
+ *
+ * The primary pool keeps the spring.datasource settings and also serves Flyway; the replica
+ * pool is configured under chimera.datasource.replica. Both pools are beans, so the actuator
+ * publishes hikaricp.* metrics for each, tagged pool=primary and pool=replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "chimera.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+
+    // Replay lag in seconds; 0 on a primary or a replica that has replayed everything it received
+    private static final String POSTGRES_LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("chimera.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${chimera.datasource.replica.url}") String url,
+                                              @Value("${chimera.datasource.replica.username:}") String username,
+                                              @Value("${chimera.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username.isEmpty() ? properties.determineUsername() : username)
+            .password(password.isEmpty() ? properties.determinePassword() : password)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                                      @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                                      ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                                      @Value("${chimera.datasource.replica.max-lag:30s}") Duration maxLag,
+                                                      @Value("${chimera.datasource.replica.lag-query:}") String lagQuery) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, maxLag,
+            lagQuery.isEmpty() ? POSTGRES_LAG_QUERY : lagQuery,
+            meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+        // The first lag check runs on the monitor thread, so an unreachable replica cannot block startup
+        return routing;
+    }
+
+    /**
+     * The DataSource used by JPA and JdbcTemplate; connections are fetched from the routing
+     * DataSource only on first use, once the transaction's read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService replicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                                                      TaskExecutors taskExecutors,
+                                                      @Value("${chimera.datasource.replica.lag-check-interval:5s}") Duration interval) {
+        ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(taskExecutors.threadFactory("replica-lag"));
+        monitor.scheduleWithFixedDelay(routingDataSource::checkLag,
+            0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return monitor;
+    }
+}
@@ -0,0 +1,109 @@
+package com.chimera.service.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to the replica pool and everything else to the
+ * primary pool.
+ *
+ * Reads stay on the primary until the first successful lag check, and afterwards while the
+ * replica is unreachable or its replay lag exceeds max-lag; checkLag() re-evaluates that and
+ * is run periodically by ReplicaRoutingConfiguration, starting right after startup.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the lookup happens after the
+ * transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    private volatile boolean replicaAvailable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, String lagQuery,
+                                    MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        this.primaryConnections = routedCounter(meterRegistry, Target.PRIMARY);
+        this.replicaConnections = routedCounter(meterRegistry, Target.REPLICA);
+        Gauge.builder("chimera.datasource.replica.lag", this, ds -> ds.lagSeconds)
+            .description("Replay lag of the read replica in seconds")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("chimera.datasource.replica.available", this, ds -> ds.replicaAvailable ? 1 : 0)
+            .description("Whether read-only transactions are routed to the replica")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaConnections.increment();
+            return Target.REPLICA;
+        }
+        primaryConnections.increment();
+        return Target.PRIMARY;
+    }
+
+    /**
+     * Measure the replica lag and enable or disable read routing accordingly
+     */
+    public void checkLag() {
+        boolean available;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            available = lagSeconds * 1000 <= maxLag.toMillis();
+            if (!available && replicaAvailable) {
+                logger.warn("Replica lag {}s exceeds {}; routing reads to the primary", lagSeconds, maxLag);
+            }
+        } catch (Exception e) {
+            lagSeconds = Double.NaN;
+            available = false;
+            if (replicaAvailable) {
+                logger.warn("Replica unavailable, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+
+        if (available && !replicaAvailable) {
+            logger.info("Routing read-only transactions to the replica (lag {}s)", lagSeconds);
+        }
+        replicaAvailable = available;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, Target target) {
+        return Counter.builder("chimera.datasource.connections.routed")
+            .description("Connections handed out per target pool")
+            .tag("target", target.name().toLowerCase())
+            .register(meterRegistry);
+    }
+}
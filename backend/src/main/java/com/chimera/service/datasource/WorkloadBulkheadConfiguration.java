@@ -0,0 +1,63 @@
+package com.chimera.service.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Wraps the application DataSource (the "dataSource" bean, plain or replica-routing) in a
+ * WorkloadBulkheadDataSource configured under chimera.datasource.bulkhead.<workload>.
+ * Flyway and the Hikari pool metrics still see the underlying pools.
+ */
+@Configuration
+@ConditionalOnProperty(name = "chimera.datasource.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkloadBulkheadConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadBulkheadConfiguration.class);
+
+    private static final Map<DbWorkload, Integer> DEFAULT_LIMITS = Map.of(
+        DbWorkload.SERVING, 6, DbWorkload.INGESTION, 3, DbWorkload.MAINTENANCE, 1);
+
+    private static final Map<DbWorkload, Duration> DEFAULT_TIMEOUTS = Map.of(
+        DbWorkload.SERVING, Duration.ofSeconds(2), DbWorkload.INGESTION, Duration.ofSeconds(60),
+        DbWorkload.MAINTENANCE, Duration.ofMinutes(5));
+
+    @Bean
+    public static BeanPostProcessor workloadBulkheadPostProcessor(Environment environment,
+                                                                  ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof WorkloadBulkheadDataSource) {
+                    return bean;
+                }
+
+                Map<DbWorkload, Integer> limits = new EnumMap<>(DbWorkload.class);
+                Map<DbWorkload, Duration> timeouts = new EnumMap<>(DbWorkload.class);
+                for (DbWorkload workload : DbWorkload.values()) {
+                    String prefix = "chimera.datasource.bulkhead." + workload.name().toLowerCase();
+                    limits.put(workload, environment.getProperty(prefix + ".max-connections", Integer.class,
+                        DEFAULT_LIMITS.get(workload)));
+                    timeouts.put(workload, environment.getProperty(prefix + ".timeout", Duration.class,
+                        DEFAULT_TIMEOUTS.get(workload)));
+                }
+                logger.info("Database bulkheads: connections {}, timeouts {}", limits, timeouts);
+                return new WorkloadBulkheadDataSource(dataSource, limits, timeouts,
+                    meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+            }
+        };
+    }
+}
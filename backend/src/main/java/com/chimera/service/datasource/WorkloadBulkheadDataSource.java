@@ -0,0 +1,156 @@
+package com.chimera.service.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the connections each DbWorkload may hold at once, so a bulk load or a retention run
+ * cannot take every pooled connection away from request serving.
+ *
+ * A connection takes a permit of its workload's bulkhead until it is closed. When no permit
+ * frees up within the workload's timeout, getConnection fails with
+ * SQLTransientConnectionException instead of queueing in the pool. Metrics per workload tag:
+ * chimera.datasource.bulkhead.active, .limit and .waiting gauges, the .wait timer and the
+ * .rejected counter.
+ */
+public class WorkloadBulkheadDataSource extends DelegatingDataSource {
+
+    private final Map<DbWorkload, Bulkhead> bulkheads = new EnumMap<>(DbWorkload.class);
+
+    public WorkloadBulkheadDataSource(DataSource target, Map<DbWorkload, Integer> limits,
+                                      Map<DbWorkload, Duration> timeouts, MeterRegistry meterRegistry) {
+        super(target);
+        for (DbWorkload workload : DbWorkload.values()) {
+            bulkheads.put(workload, new Bulkhead(workload, limits.get(workload), timeouts.get(workload), meterRegistry));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead bulkhead = bulkheads.get(DbWorkload.current());
+        bulkhead.acquire();
+        try {
+            return bulkhead.track(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Bulkhead bulkhead = bulkheads.get(DbWorkload.current());
+        bulkhead.acquire();
+        try {
+            return bulkhead.track(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    private static final class Bulkhead {
+        private final DbWorkload workload;
+        private final int limit;
+        private final Duration timeout;
+        private final Semaphore permits;
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        Bulkhead(DbWorkload workload, int limit, Duration timeout, MeterRegistry meterRegistry) {
+            this.workload = workload;
+            this.limit = limit;
+            this.timeout = timeout;
+            this.permits = new Semaphore(limit, true);
+
+            String tag = workload.name().toLowerCase();
+            this.waitTimer = Timer.builder("chimera.datasource.bulkhead.wait")
+                .description("Time spent waiting for a connection permit")
+                .tag("workload", tag)
+                .register(meterRegistry);
+            this.rejected = Counter.builder("chimera.datasource.bulkhead.rejected")
+                .description("Connection requests that timed out waiting for a permit")
+                .tag("workload", tag)
+                .register(meterRegistry);
+            Gauge.builder("chimera.datasource.bulkhead.active", permits, p -> limit - p.availablePermits())
+                .description("Connections held by the workload")
+                .tag("workload", tag)
+                .register(meterRegistry);
+            Gauge.builder("chimera.datasource.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a connection permit")
+                .tag("workload", tag)
+                .register(meterRegistry);
+            Gauge.builder("chimera.datasource.bulkhead.limit", () -> limit)
+                .description("Connections the workload may hold at once")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        }
+
+        void acquire() throws SQLException {
+            long started = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a " + workload + " connection permit", e);
+            } finally {
+                waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(String.format(
+                    "%s bulkhead saturated: all %d connections in use after waiting %s", workload, limit, timeout));
+            }
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        /**
+         * Wraps the connection so that closing it returns the permit, once
+         */
+        Connection track(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default: break;
+                    }
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.chimera.service.http;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the WebClients used for outbound calls (OpenAI, NSE/AMFI ingestion) on shared,
+ * tuned Reactor Netty connection pools.
+ *
+ * Each named client gets its own ConnectionProvider, which keeps a separate pool per remote
+ * host, so a slow data source cannot starve LLM calls. Keep-alive connections are reused for
+ * max-idle-time, so only the first call to a host pays for the TLS handshake; clients with
+ * prewarm enabled open that connection at startup.
+ *
+ * Timeouts are layered: connect-timeout for the TCP/TLS connect, response-timeout until
+ * response headers arrive, read-timeout between reads of the body (so long streams stay alive
+ * while tokens keep flowing). Callers keep their own overall Mono timeout on top.
+ *
+ * Settings are read from chimera.http.clients.&lt;name&gt;.*, falling back to chimera.http.defaults.*.
+ * Pool gauges are published to Micrometer as reactor.netty.connection.provider.* tagged with
+ * the client name and remote address.
+ */
+@Component
+public class HttpClientFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientFactory.class);
+
+    private final Environment environment;
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+    private final Map<String, WebClient> prewarmTargets = new ConcurrentHashMap<>();
+
+    public HttpClientFactory(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Pooled WebClient builder for callers that use absolute URLs
+     */
+    public WebClient.Builder builder(String name) {
+        return builder(name, null);
+    }
+
+    /**
+     * Pooled WebClient builder for a fixed base URL
+     */
+    public WebClient.Builder builder(String name, String baseUrl) {
+        Duration connectTimeout = setting(name, "connect-timeout", Duration.class, Duration.ofSeconds(3));
+        Duration readTimeout = setting(name, "read-timeout", Duration.class, Duration.ofSeconds(15));
+        Duration writeTimeout = setting(name, "write-timeout", Duration.class, Duration.ofSeconds(10));
+        Duration responseTimeout = setting(name, "response-timeout", Duration.class, Duration.ofSeconds(20));
+        boolean http2 = setting(name, "http2", Boolean.class, false)
+                && (baseUrl == null || baseUrl.startsWith("https"));
+
+        HttpClient httpClient = HttpClient.create(providers.computeIfAbsent(name, this::newProvider))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // Per read inactivity while a response is being received
+                .responseTimeout(readTimeout)
+                .doOnRequest((request, connection) -> connection.addHandlerLast(
+                        new WriteTimeoutHandler(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)))
+                .compress(setting(name, "compress", Boolean.class, true));
+
+        if (http2) {
+            // ALPN negotiates h2 and falls back to HTTP/1.1 for servers without it
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+
+        int maxInMemory = setting(name, "max-in-memory-size", Integer.class, 1024 * 1024);
+
+        logger.info("HTTP client '{}': max {} connections per host, connect {}, read {}, response {}, http2 {}",
+                name, setting(name, "max-connections", Integer.class, 50), connectTimeout, readTimeout, responseTimeout, http2);
+
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+        if (baseUrl != null && setting(name, "prewarm", Boolean.class, false)) {
+            prewarmTargets.putIfAbsent(name, WebClient.builder().clientConnector(connector).baseUrl(baseUrl).build());
+        }
+
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(connector)
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemory))
+                .filter(responseTimeoutFilter(responseTimeout));
+        return baseUrl != null ? builder.baseUrl(baseUrl) : builder;
+    }
+
+    private ConnectionProvider newProvider(String name) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(setting(name, "max-connections", Integer.class, 50))
+                .pendingAcquireTimeout(setting(name, "pending-acquire-timeout", Duration.class, Duration.ofSeconds(5)))
+                .pendingAcquireMaxCount(setting(name, "pending-acquire-max-count", Integer.class, 500))
+                .maxIdleTime(setting(name, "max-idle-time", Duration.class, Duration.ofSeconds(60)))
+                .maxLifeTime(setting(name, "max-life-time", Duration.class, Duration.ofMinutes(10)))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Time allowed until response headers arrive; body streaming is governed by read-timeout
+     */
+    private static ExchangeFilterFunction responseTimeoutFilter(Duration responseTimeout) {
+        return (request, next) -> next.exchange(request).timeout(responseTimeout);
+    }
+
+    /**
+     * Opens one connection per prewarmed client so the first user request skips DNS and the
+     * TLS handshake. Any HTTP status is fine - only the connection matters.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        prewarmTargets.forEach((name, webClient) -> webClient.head()
+                .uri("/")
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .doOnNext(status -> logger.info("Prewarmed HTTP client '{}' ({})", name, status.value()))
+                .onErrorResume(e -> {
+                    logger.debug("Prewarm of HTTP client '{}' failed: {}", name, e.getMessage());
+                    return Mono.empty();
+                })
+                .subscribe());
+    }
+
+    private <T> T setting(String client, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("chimera.http.clients." + client + "." + key, type);
+        if (value != null) {
+            return value;
+        }
+        return environment.getProperty("chimera.http.defaults." + key, type, defaultValue);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+}
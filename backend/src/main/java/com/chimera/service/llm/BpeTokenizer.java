@@ -0,0 +1,162 @@
+package com.chimera.service.llm;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process byte-pair-encoding tokenizer compatible with OpenAI's cl100k_base encoding.
+ *
+ * Text is split with the cl100k pre-tokenization pattern and each piece is BPE-merged over its
+ * UTF-8 bytes using the rank table (tiktoken format: one "base64-token rank" pair per line).
+ * Without a rank table (the default - no table ships with the application) the tokenizer runs
+ * in approximate mode: pieces are split the same way and each is estimated at one token per
+ * four bytes, rounded up to at least one. That is a rough estimate; numerals and
+ * punctuation-heavy text can differ noticeably from the real count.
+ */
+public class BpeTokenizer {
+
+    private static final Pattern PRE_TOKENIZER = Pattern.compile(
+        "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+    private final Map<ByteSequence, Integer> ranks;
+
+    private BpeTokenizer(Map<ByteSequence, Integer> ranks) {
+        this.ranks = ranks;
+    }
+
+    /**
+     * Exact tokenizer from a tiktoken rank file
+     */
+    public static BpeTokenizer fromTiktoken(InputStream ranksFile) throws IOException {
+        Map<ByteSequence, Integer> ranks = new HashMap<>(128 * 1024);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ranksFile, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0) {
+                    continue;
+                }
+                byte[] token = Base64.getDecoder().decode(line.substring(0, space));
+                ranks.put(new ByteSequence(token), Integer.parseInt(line.substring(space + 1).trim()));
+            }
+        }
+        return new BpeTokenizer(ranks);
+    }
+
+    /**
+     * Approximate tokenizer used when no rank file is available
+     */
+    public static BpeTokenizer approximate() {
+        return new BpeTokenizer(Map.of());
+    }
+
+    public boolean isExact() {
+        return !ranks.isEmpty();
+    }
+
+    public int countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            count += countPiece(matcher.group().getBytes(StandardCharsets.UTF_8));
+        }
+        return count;
+    }
+
+    /**
+     * Longest prefix of the text that fits in maxTokens, cut at a pre-token boundary
+     */
+    public String truncate(String text, int maxTokens) {
+        if (text == null || maxTokens <= 0) {
+            return "";
+        }
+        int used = 0;
+        int end = 0;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            int tokens = countPiece(matcher.group().getBytes(StandardCharsets.UTF_8));
+            if (used + tokens > maxTokens) {
+                break;
+            }
+            used += tokens;
+            end = matcher.end();
+        }
+        return text.substring(0, end);
+    }
+
+    private int countPiece(byte[] piece) {
+        if (ranks.isEmpty()) {
+            return Math.max(1, (piece.length + 3) / 4);
+        }
+        if (ranks.containsKey(new ByteSequence(piece))) {
+            return 1;
+        }
+        return bytePairMerge(piece).size();
+    }
+
+    /**
+     * Standard BPE: repeatedly merge the adjacent pair whose concatenation has the lowest rank
+     * until no mergeable pair is left; the remaining parts are the tokens
+     */
+    private List<ByteSequence> bytePairMerge(byte[] piece) {
+        List<int[]> parts = new ArrayList<>(piece.length);
+        for (int i = 0; i < piece.length; i++) {
+            parts.add(new int[]{i, i + 1});
+        }
+        while (parts.size() > 1) {
+            int bestIndex = -1;
+            int bestRank = Integer.MAX_VALUE;
+            for (int i = 0; i < parts.size() - 1; i++) {
+                Integer rank = ranks.get(new ByteSequence(Arrays.copyOfRange(piece, parts.get(i)[0], parts.get(i + 1)[1])));
+                if (rank != null && rank < bestRank) {
+                    bestRank = rank;
+                    bestIndex = i;
+                }
+            }
+            if (bestIndex < 0) {
+                break;
+            }
+            parts.get(bestIndex)[1] = parts.get(bestIndex + 1)[1];
+            parts.remove(bestIndex + 1);
+        }
+        List<ByteSequence> tokens = new ArrayList<>(parts.size());
+        for (int[] part : parts) {
+            tokens.add(new ByteSequence(Arrays.copyOfRange(piece, part[0], part[1])));
+        }
+        return tokens;
+    }
+
+    private static final class ByteSequence {
+        private final byte[] bytes;
+        private final int hash;
+
+        private ByteSequence(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ByteSequence && Arrays.equals(bytes, ((ByteSequence) other).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.chimera.service.llm;
+
+import com.chimera.service.CacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Daily LLM spend accounting shared by every chat path (single, batched, streamed, precomputed).
+ *
+ * Usage is kept in the cache backend, so instances sharing Redis share one budget and a
+ * standalone instance keeps it in the bounded in-memory store.
+ */
+@Component
+public class LlmBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmBudget.class);
+
+    @Value("${chimera.budget.daily-limit:5.0}")
+    private double dailyBudgetLimit;
+
+    @Value("${chimera.budget.cost-per-1k-tokens:0.002}")
+    private double costPer1kTokens;
+
+    @Value("${chimera.budget.enable-cost-protection:true}")
+    private boolean enableCostProtection;
+
+    @Value("${chimera.openai.max-tokens:150}")
+    private int maxTokens;
+
+    @Value("${chimera.llm.prompt.min-completion-tokens:60}")
+    private int minCompletionTokens;
+
+    private final CacheService cacheService;
+
+    public LlmBudget(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    public boolean isExceeded() {
+        if (!enableCostProtection) {
+            return false;
+        }
+        double dailyUsage = getDailyUsage();
+        if (dailyUsage >= dailyBudgetLimit) {
+            logger.warn("Daily budget exceeded: ${} >= ${}", String.format("%.4f", dailyUsage), String.format("%.2f", dailyBudgetLimit));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Completion tokens a call may use: max-tokens when the worst case fits the remaining
+     * budget, fewer when only a shorter answer fits, 0 when even a short answer does not
+     */
+    public int affordableCompletionTokens(int promptTokens) {
+        return affordableCompletionTokens(promptTokens, maxTokens);
+    }
+
+    public int affordableCompletionTokens(int promptTokens, int requestedTokens) {
+        if (!enableCostProtection) {
+            return requestedTokens;
+        }
+        double remaining = dailyBudgetLimit - getDailyUsage();
+        if (PromptBuilder.predictCost(promptTokens, requestedTokens, costPer1kTokens) <= remaining) {
+            return requestedTokens;
+        }
+        int affordable = (int) (remaining / costPer1kTokens * 1000) - promptTokens;
+        if (affordable >= minCompletionTokens) {
+            logger.info("Downgrading completion to {} tokens to stay within budget", affordable);
+            return affordable;
+        }
+        return 0;
+    }
+
+    /**
+     * A hedge may double the cost of a call, so only hedge while comfortably inside the budget
+     */
+    public boolean isHedgeAffordable() {
+        return !enableCostProtection || getDailyUsage() < dailyBudgetLimit * 0.8;
+    }
+
+    /**
+     * Charges a completion to today's budget and returns its cost
+     */
+    public double recordUsage(int totalTokens) {
+        if (totalTokens <= 0) {
+            return 0.0;
+        }
+        double cost = (totalTokens / 1000.0) * costPer1kTokens;
+        cacheService.trackDailyUsage(LocalDate.now().toString(), cost);
+
+        logger.info("API usage: {} tokens, estimated cost: ${}", totalTokens, String.format("%.4f", cost));
+        return cost;
+    }
+
+    /**
+     * Charges the unused attempt of a hedged call. It is cancelled once the other attempt
+     * answers but the provider bills it anyway, so its worst case (the full completion) is assumed
+     */
+    public double recordHedgeLoser(int promptTokens, int completionTokens) {
+        logger.debug("Charging hedged attempt: {} prompt + {} completion tokens", promptTokens, completionTokens);
+        return recordUsage(promptTokens + completionTokens);
+    }
+
+    public double getDailyUsage() {
+        return cacheService.getDailyUsage(LocalDate.now().toString());
+    }
+
+    public DailyUsageStats getStats() {
+        double dailyUsage = getDailyUsage();
+        double remainingBudget = Math.max(0, dailyBudgetLimit - dailyUsage);
+        double usagePercent = (dailyUsage / dailyBudgetLimit) * 100;
+
+        return new DailyUsageStats(dailyUsage, dailyBudgetLimit, remainingBudget, usagePercent);
+    }
+
+    public static class DailyUsageStats {
+        private final double dailyUsage;
+        private final double dailyLimit;
+        private final double remainingBudget;
+        private final double usagePercent;
+
+        public DailyUsageStats(double dailyUsage, double dailyLimit, double remainingBudget, double usagePercent) {
+            this.dailyUsage = dailyUsage;
+            this.dailyLimit = dailyLimit;
+            this.remainingBudget = remainingBudget;
+            this.usagePercent = usagePercent;
+        }
+
+        // Getters
+        public double getDailyUsage() { return dailyUsage; }
+        public double getDailyLimit() { return dailyLimit; }
+        public double getRemainingBudget() { return remainingBudget; }
+        public double getUsagePercent() { return usagePercent; }
+
+        public boolean isNearLimit() { return usagePercent > 80; }
+        public boolean isOverLimit() { return usagePercent >= 100; }
+    }
+}
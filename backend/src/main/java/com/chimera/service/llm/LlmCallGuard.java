@@ -0,0 +1,277 @@
+package com.chimera.service.llm;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Guards calls to the LLM provider with three mechanisms:
+ *
+ *  - adaptive timeout: p99 of recent successful latencies times a multiplier, clamped to
+ *    [min-timeout, max-timeout]; max-timeout applies until enough samples are collected
+ *  - hedging (optional): if the first attempt has not answered after the p95 delay, a second
+ *    identical request is fired and whichever returns first wins; the loser is cancelled.
+ *    Cancelling does not stop the provider billing it, so callers decide per call whether a
+ *    hedge is affordable (budget) and are told when one fires to charge the extra attempt.
+ *    Hedges are capped at max-hedge-ratio of calls
+ *  - circuit breaker: the Resilience4j "openai" instance; while open, calls fail immediately
+ *    with CallNotPermittedException so callers go straight to their fallback
+ *
+ * Only the raw HTTP exchange should be guarded - parsing, usage tracking and cache writes
+ * must run once on the winning response.
+ */
+@Component
+public class LlmCallGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmCallGuard.class);
+
+    @Value("${chimera.llm.timeout.min:2s}")
+    private Duration minTimeout;
+
+    @Value("${chimera.llm.timeout.max:15s}")
+    private Duration maxTimeout;
+
+    @Value("${chimera.llm.timeout.p99-multiplier:2.0}")
+    private double p99Multiplier;
+
+    @Value("${chimera.llm.timeout.min-samples:20}")
+    private int minSamples;
+
+    @Value("${chimera.llm.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${chimera.llm.hedging.min-delay:500ms}")
+    private Duration minHedgeDelay;
+
+    @Value("${chimera.llm.hedging.max-hedge-ratio:0.1}")
+    private double maxHedgeRatio;
+
+    private final LatencyWindow latencies = new LatencyWindow(256);
+    private final CircuitBreaker circuitBreaker;
+
+    private final Timer latencyTimer;
+    private final Counter hedgeCounter;
+    private final Counter hedgeWinCounter;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+
+    public LlmCallGuard(ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistryProvider,
+                        ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        CircuitBreakerRegistry circuitBreakerRegistry = circuitBreakerRegistryProvider.getIfAvailable(CircuitBreakerRegistry::ofDefaults);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("openai");
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                logger.warn("LLM circuit breaker {}", event.getStateTransition()));
+
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        this.latencyTimer = Timer.builder("chimera.llm.latency")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.hedgeCounter = Counter.builder("chimera.llm.hedges").tag("result", "fired").register(registry);
+        this.hedgeWinCounter = Counter.builder("chimera.llm.hedges").tag("result", "won").register(registry);
+        this.rejectedCounter = Counter.builder("chimera.llm.rejected").tag("cause", "circuit_open").register(registry);
+        this.timeoutCounter = Counter.builder("chimera.llm.rejected").tag("cause", "timeout").register(registry);
+        Gauge.builder("chimera.llm.timeout.current", this, guard -> guard.currentTimeout().toMillis())
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    /**
+     * Runs the call with adaptive timeout and circuit breaking, without hedging
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return guard(call, false, null, null);
+    }
+
+    /**
+     * Runs the call with adaptive timeout and circuit breaking. When hedgeAllowed is true and
+     * hedging is enabled, a second attempt may be fired after the p95 delay; onHedgeFired then
+     * runs once, as exactly one of the two attempts will be billed without being used.
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call, boolean hedgeAllowed, Runnable onHedgeFired) {
+        return guard(call, hedgeAllowed, null, onHedgeFired);
+    }
+
+    /**
+     * Circuit breaking with a caller-chosen timeout, for calls whose latency is not comparable
+     * to ordinary answers (multi-answer batches). Such calls do not feed the latency window.
+     */
+    public <T> Mono<T> executeWithTimeout(Supplier<Mono<T>> call, Duration timeout) {
+        return guard(call, false, timeout, null);
+    }
+
+    /**
+     * Circuit breaking for streamed answers. The adaptive timeout applies to the first element
+     * (time to first token); gaps between later chunks are bounded by the HTTP read timeout.
+     */
+    public <T> Flux<T> executeStream(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedCounter.increment();
+                return Flux.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            }
+            long started = System.nanoTime();
+            return Flux.defer(call)
+                    .timeout(Mono.delay(currentTimeout()), item -> Mono.never())
+                    .doOnComplete(() -> circuitBreaker.onSuccess(System.nanoTime() - started, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> circuitBreaker.onError(System.nanoTime() - started, TimeUnit.NANOSECONDS, error))
+                    .doOnCancel(circuitBreaker::releasePermission);
+        });
+    }
+
+    private <T> Mono<T> guard(Supplier<Mono<T>> call, boolean hedgeAllowed, Duration fixedTimeout, Runnable onHedgeFired) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedCounter.increment();
+                return Mono.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            }
+            long started = System.nanoTime();
+            Duration timeout = fixedTimeout != null ? fixedTimeout : currentTimeout();
+
+            Mono<T> primary = attempt(call, timeout);
+            Mono<T> result = primary;
+            calls.incrementAndGet();
+            if (fixedTimeout == null && hedgingEnabled && hedgeAllowed && latencies.size() >= minSamples) {
+                Duration delay = hedgeDelay();
+                Duration remaining = timeout.minus(delay);
+                // The hedge slot is only taken once the primary has outlasted the delay, so the
+                // ratio caps requests actually sent; without a slot the hedge completes empty
+                Mono<T> hedge = Mono.delay(delay)
+                        .filter(tick -> takeHedgeSlot())
+                        .doOnNext(tick -> {
+                            hedgeCounter.increment();
+                            if (onHedgeFired != null) {
+                                onHedgeFired.run();
+                            }
+                        })
+                        .flatMap(tick -> attempt(call, remaining.compareTo(minTimeout) < 0 ? minTimeout : remaining))
+                        .doOnNext(value -> hedgeWinCounter.increment());
+                result = Mono.firstWithValue(primary, hedge)
+                        .onErrorMap(NoSuchElementException.class, LlmCallGuard::firstFailure);
+            }
+
+            return result
+                    .doOnSuccess(value -> {
+                        long elapsed = System.nanoTime() - started;
+                        circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                        if (fixedTimeout == null) {
+                            recordLatency(elapsed);
+                        }
+                    })
+                    .doOnError(error -> circuitBreaker.onError(System.nanoTime() - started, TimeUnit.NANOSECONDS, error))
+                    .doOnCancel(circuitBreaker::releasePermission);
+        });
+    }
+
+    /**
+     * firstWithValue reports "no value" with the attempts' errors suppressed; surface the
+     * underlying failure so callers and the circuit breaker see the real cause
+     */
+    private static Throwable firstFailure(NoSuchElementException e) {
+        return e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e;
+    }
+
+    private <T> Mono<T> attempt(Supplier<Mono<T>> call, Duration timeout) {
+        return Mono.defer(call)
+                .timeout(timeout)
+                .doOnError(TimeoutException.class, e -> timeoutCounter.increment());
+    }
+
+    /**
+     * p99 of recent latencies times the multiplier, clamped; max timeout until warmed up
+     */
+    public Duration currentTimeout() {
+        if (latencies.size() < minSamples) {
+            return maxTimeout;
+        }
+        long adaptive = (long) (latencies.percentile(0.99) * p99Multiplier);
+        return Duration.ofNanos(Math.max(minTimeout.toNanos(), Math.min(maxTimeout.toNanos(), adaptive)));
+    }
+
+    public Duration hedgeDelay() {
+        return Duration.ofNanos(Math.max(minHedgeDelay.toNanos(), latencies.percentile(0.95)));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private void recordLatency(long nanos) {
+        latencies.add(nanos);
+        latencyTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes a hedge slot while fired hedges stay under max-hedge-ratio of all calls
+     */
+    private boolean takeHedgeSlot() {
+        while (true) {
+            long fired = hedges.get();
+            if (fired >= calls.get() * maxHedgeRatio) {
+                return false;
+            }
+            if (hedges.compareAndSet(fired, fired + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Fixed-size ring of recent latencies; percentiles are computed on a sorted copy, which is
+     * cheap at this size and only happens once per call
+     */
+    static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void add(long value) {
+            samples[next] = value;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        long percentile(double quantile) {
+            long[] copy;
+            synchronized (this) {
+                if (count == 0) {
+                    return 0;
+                }
+                copy = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(copy);
+            int index = (int) Math.ceil(quantile * copy.length) - 1;
+            return copy[Math.max(0, Math.min(copy.length - 1, index))];
+        }
+    }
+}
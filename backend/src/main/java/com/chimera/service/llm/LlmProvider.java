@@ -0,0 +1,34 @@
+package com.chimera.service.llm;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Transport for chat completions. Requests and responses use the OpenAI chat-completions wire
+ * format, so parsing, usage tracking and caching stay in the services and behave identically
+ * whichever provider is active (chimera.llm.provider: openai | stub).
+ *
+ * Failures are reported the way the HTTP client reports them (WebClientResponseException for
+ * non-2xx statuses such as 429), so callers keep a single error path.
+ */
+public interface LlmProvider {
+
+    String getName();
+
+    /**
+     * Whether the provider can serve real requests (e.g. an API key is configured)
+     */
+    boolean isConfigured();
+
+    /**
+     * One completion; emits the raw response body
+     */
+    Mono<String> complete(Map<String, Object> request);
+
+    /**
+     * Streamed completion; emits the data field of each server-sent event, ending with "[DONE]"
+     */
+    Flux<String> stream(Map<String, Object> request);
+}
@@ -0,0 +1,69 @@
+package com.chimera.service.llm;
+
+import com.chimera.service.http.HttpClientFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * OpenAI chat completions over the pooled "openai" HTTP client. The base URL is configurable,
+ * so this provider can also be pointed at any OpenAI-compatible server.
+ */
+@Component
+@ConditionalOnProperty(name = "chimera.llm.provider", havingValue = "openai", matchIfMissing = true)
+public class OpenAiProvider implements LlmProvider {
+
+    private final WebClient webClient;
+    private final String apiKey;
+
+    public OpenAiProvider(HttpClientFactory httpClientFactory,
+                          @Value("${chimera.openai.base-url:https://api.openai.com/v1}") String baseUrl,
+                          @Value("${chimera.openai.api-key:}") String apiKey) {
+        this.webClient = httpClientFactory.builder("openai", baseUrl)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public String getName() {
+        return "openai";
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty()
+                && !"your-api-key-here".equals(apiKey) && !"your-openai-api-key-here".equals(apiKey);
+    }
+
+    @Override
+    public Mono<String> complete(Map<String, Object> request) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+
+    @Override
+    public Flux<String> stream(Map<String, Object> request) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .mapNotNull(ServerSentEvent::data);
+    }
+}
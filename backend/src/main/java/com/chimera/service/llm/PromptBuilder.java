@@ -0,0 +1,247 @@
+package com.chimera.service.llm;
+
+import com.chimera.service.cache.SemanticChatCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Token-aware prompt assembly.
+ *
+ * The fixed parts of a prompt (instructions, symbol, question) are always kept; context is
+ * split into sentences, ranked by word overlap with the question and packed greedily into
+ * whatever is left of chimera.llm.prompt.max-tokens, then emitted in its original order.
+ * Because the prompt size is known before sending, callers can predict the worst-case cost
+ * of a call (prompt + max completion tokens) and reject or shrink it up front.
+ *
+ * Token counts come from {@link BpeTokenizer}. By default they are approximate, so budgets
+ * are estimates; pointing chimera.llm.tokenizer.ranks-file at a cl100k_base.tiktoken file
+ * makes them exact.
+ */
+@Component
+public class PromptBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptBuilder.class);
+
+    @Value("${chimera.llm.prompt.max-tokens:220}")
+    private int maxPromptTokens;
+
+    @Value("${chimera.llm.prompt.max-question-tokens:60}")
+    private int maxQuestionTokens;
+
+    private final BpeTokenizer tokenizer;
+    private final DistributionSummary tokensIn;
+    private final DistributionSummary tokensOut;
+
+    public PromptBuilder(ResourceLoader resourceLoader,
+                         @Value("${chimera.llm.tokenizer.ranks-file:}") String ranksFile,
+                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.tokenizer = loadTokenizer(resourceLoader, ranksFile);
+
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        this.tokensIn = DistributionSummary.builder("chimera.llm.tokens")
+                .tag("direction", "in")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.tokensOut = DistributionSummary.builder("chimera.llm.tokens")
+                .tag("direction", "out")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    private static BpeTokenizer loadTokenizer(ResourceLoader resourceLoader, String ranksFile) {
+        if (ranksFile == null || ranksFile.isBlank()) {
+            logger.info("No BPE rank table configured, token counts are approximate");
+            return BpeTokenizer.approximate();
+        }
+        Resource resource = resourceLoader.getResource(ranksFile);
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                BpeTokenizer tokenizer = BpeTokenizer.fromTiktoken(in);
+                logger.info("Loaded BPE rank table from {}", ranksFile);
+                return tokenizer;
+            } catch (Exception e) {
+                logger.warn("Could not load BPE rank table from {}: {}", ranksFile, e.getMessage());
+            }
+        }
+        logger.info("No BPE rank table at {}, token counts are approximate", ranksFile);
+        return BpeTokenizer.approximate();
+    }
+
+    /**
+     * Builds a prompt of at most max-tokens tokens: preamble, the most relevant context that
+     * fits, then the tail (symbol/question/answer cue). The question is capped separately.
+     */
+    public Prompt build(String preamble, String context, String symbol, String question, String answerCue) {
+        String cappedQuestion = capQuestion(question);
+
+        StringBuilder tail = new StringBuilder();
+        if (symbol != null && !symbol.trim().isEmpty()) {
+            tail.append("Stock: ").append(symbol).append("\n");
+        }
+        tail.append(answerCue.replace("{question}", cappedQuestion));
+
+        int fixedTokens = tokenizer.countTokens(preamble) + tokenizer.countTokens(tail.toString());
+        String packedContext = packContext(context, cappedQuestion + " " + symbol, maxPromptTokens - fixedTokens);
+
+        StringBuilder prompt = new StringBuilder(preamble);
+        if (!packedContext.isEmpty()) {
+            prompt.append("Context: ").append(packedContext).append("\n");
+        }
+        prompt.append(tail);
+
+        String text = prompt.toString();
+        return new Prompt(text, tokenizer.countTokens(text));
+    }
+
+    /**
+     * Builds a multi-answer prompt: preamble, the shared context, then one numbered
+     * "Stock | Question" line per item. Questions are capped as in build; the context gets the
+     * allowance it would have next to the longest item alone, ranked against all questions.
+     */
+    public Prompt buildBatch(String preamble, String context, List<String> symbols, List<String> questions) {
+        StringBuilder items = new StringBuilder();
+        StringBuilder query = new StringBuilder();
+        int longestItem = 0;
+        for (int i = 0; i < symbols.size(); i++) {
+            String cappedQuestion = capQuestion(questions.get(i));
+            String item = (i + 1) + ". Stock: " + symbols.get(i) + " | Question: " + cappedQuestion + "\n";
+            items.append(item);
+            query.append(cappedQuestion).append(' ').append(symbols.get(i)).append(' ');
+            longestItem = Math.max(longestItem, tokenizer.countTokens(item));
+        }
+
+        String packedContext = packContext(context, query.toString(),
+                maxPromptTokens - tokenizer.countTokens(preamble) - longestItem);
+
+        StringBuilder prompt = new StringBuilder(preamble);
+        if (!packedContext.isEmpty()) {
+            prompt.append("Context: ").append(packedContext).append("\n");
+        }
+        prompt.append(items);
+
+        String text = prompt.toString();
+        return new Prompt(text, tokenizer.countTokens(text));
+    }
+
+    private String capQuestion(String question) {
+        return tokenizer.countTokens(question) > maxQuestionTokens
+                ? tokenizer.truncate(question, maxQuestionTokens).trim() + "..."
+                : question;
+    }
+
+    /**
+     * Context sentences ranked by relevance and packed into the token allowance, emitted in
+     * their original order
+     */
+    String packContext(String context, String query, int allowance) {
+        if (context == null || context.trim().isEmpty() || allowance <= 8) {
+            return "";
+        }
+        // "Context: " label and newline
+        int budget = allowance - 3;
+
+        String[] sentences = context.trim().split("(?<=[.!?;])\\s+|\\n+");
+        Set<String> queryTokens = SemanticChatCache.normalize(query);
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < sentences.length; i++) {
+            String sentence = sentences[i].trim();
+            if (sentence.isEmpty()) {
+                continue;
+            }
+            Set<String> tokens = SemanticChatCache.normalize(sentence);
+            long overlap = tokens.stream().filter(queryTokens::contains).count();
+            candidates.add(new Candidate(i, sentence, overlap, tokenizer.countTokens(sentence + " ")));
+        }
+        candidates.sort(Comparator.comparingLong((Candidate c) -> c.overlap).reversed()
+                .thenComparingInt(c -> c.index));
+
+        List<Candidate> chosen = new ArrayList<>();
+        int used = 0;
+        for (Candidate candidate : candidates) {
+            if (used + candidate.tokens <= budget) {
+                chosen.add(candidate);
+                used += candidate.tokens;
+            } else if (chosen.isEmpty()) {
+                // Nothing fits whole - keep the start of the most relevant sentence
+                chosen.add(new Candidate(candidate.index, tokenizer.truncate(candidate.text, budget - 1).trim() + "...",
+                        candidate.overlap, budget));
+                break;
+            }
+        }
+        chosen.sort(Comparator.comparingInt(c -> c.index));
+
+        StringBuilder packed = new StringBuilder();
+        for (Candidate candidate : chosen) {
+            if (packed.length() > 0) {
+                packed.append(' ');
+            }
+            packed.append(candidate.text);
+        }
+        return packed.toString();
+    }
+
+    public int countTokens(String text) {
+        return tokenizer.countTokens(text);
+    }
+
+    /**
+     * Worst-case cost of a call: the whole prompt plus every allowed completion token
+     */
+    public static double predictCost(int promptTokens, int maxCompletionTokens, double costPer1kTokens) {
+        return (promptTokens + maxCompletionTokens) / 1000.0 * costPer1kTokens;
+    }
+
+    /**
+     * Records observed (or, when the provider reports none, locally counted) token usage
+     */
+    public void recordUsage(int promptTokens, int completionTokens) {
+        if (promptTokens > 0) {
+            tokensIn.record(promptTokens);
+        }
+        if (completionTokens > 0) {
+            tokensOut.record(completionTokens);
+        }
+    }
+
+    public static class Prompt {
+        private final String text;
+        private final int tokens;
+
+        public Prompt(String text, int tokens) {
+            this.text = text;
+            this.tokens = tokens;
+        }
+
+        public String getText() { return text; }
+        public int getTokens() { return tokens; }
+    }
+
+    private static final class Candidate {
+        private final int index;
+        private final String text;
+        private final long overlap;
+        private final int tokens;
+
+        private Candidate(int index, String text, long overlap, int tokens) {
+            this.index = index;
+            this.text = text;
+            this.overlap = overlap;
+            this.tokens = tokens;
+        }
+    }
+}
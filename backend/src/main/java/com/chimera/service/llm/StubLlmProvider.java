@@ -0,0 +1,268 @@
+package com.chimera.service.llm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the OpenAI API, for load tests and offline development
+ * (chimera.llm.provider: stub). Nothing leaves the JVM and no budget is spent, but callers see
+ * the same wire format and failure modes as the real API:
+ *
+ *  - latency: log-normal, fitted to latency-p50 and latency-p99; for streams this is the time
+ *    to first token, after which a chunk is emitted every token-interval
+ *  - rate limits: requests beyond requests-per-second (per wall-clock second), plus a random
+ *    error-rate share, fail with HTTP 429
+ *  - usage: prompt and completion tokens counted with the same tokenizer as PromptBuilder
+ *  - batched prompts (JSON array of answers) are answered in kind
+ *
+ * Each request draws from its own generator seeded with seed + request number, so a run with
+ * the same seed and the same request order produces the same latencies, errors and answers.
+ */
+@Component
+@ConditionalOnProperty(name = "chimera.llm.provider", havingValue = "stub")
+public class StubLlmProvider implements LlmProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubLlmProvider.class);
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private static final Pattern SYMBOL = Pattern.compile("Stock: (\\S+)");
+    private static final Pattern BATCH_ITEM = Pattern.compile("(?m)^(\\d+)\\. Stock: (\\S+)");
+
+    private static final String[] SENTENCES = {
+            "%s ranks well on risk-adjusted returns over the selected horizon.",
+            "Revenue growth and stable operating margin support the score.",
+            "Liquidity is high, so position sizing has little market impact.",
+            "Volatility is moderate relative to its sector peers.",
+            "Debt levels are manageable and equity performance has been consistent.",
+            "Recent news sentiment is mildly positive according to Reuters coverage.",
+            "Price data is taken from NSE Bhavcopy and rates context from RBI releases."
+    };
+
+    @Value("${chimera.llm.stub.seed:42}")
+    private long seed;
+
+    @Value("${chimera.llm.stub.latency-p50:800ms}")
+    private Duration latencyP50;
+
+    @Value("${chimera.llm.stub.latency-p99:3s}")
+    private Duration latencyP99;
+
+    @Value("${chimera.llm.stub.token-interval:20ms}")
+    private Duration tokenInterval;
+
+    @Value("${chimera.llm.stub.requests-per-second:0}")
+    private int requestsPerSecond;
+
+    @Value("${chimera.llm.stub.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${chimera.llm.stub.answer-sentences:4}")
+    private int answerSentences;
+
+    private final PromptBuilder promptBuilder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Fixed one-second window for the emulated rate limit
+    private long windowSecond;
+    private int windowCount;
+
+    public StubLlmProvider(PromptBuilder promptBuilder) {
+        this.promptBuilder = promptBuilder;
+        logger.warn("Using stub LLM provider - answers are synthetic and no OpenAI calls are made");
+    }
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return true;
+    }
+
+    @Override
+    public Mono<String> complete(Map<String, Object> request) {
+        return Mono.defer(() -> {
+            SplittableRandom random = new SplittableRandom(seed + sequence.getAndIncrement());
+            if (isRateLimited(random)) {
+                return Mono.error(tooManyRequests());
+            }
+            String prompt = promptOf(request);
+            String content = answer(prompt, maxTokensOf(request), random);
+            return Mono.delay(sampleLatency(random))
+                    .then(Mono.fromCallable(() -> objectMapper.writeValueAsString(Map.of(
+                            "id", "stub-" + sequence.get(),
+                            "object", "chat.completion",
+                            "model", "stub",
+                            "choices", List.of(Map.of(
+                                    "index", 0,
+                                    "message", Map.of("role", "assistant", "content", content),
+                                    "finish_reason", "stop")),
+                            "usage", usage(prompt, content)))));
+        });
+    }
+
+    @Override
+    public Flux<String> stream(Map<String, Object> request) {
+        return Flux.defer(() -> {
+            SplittableRandom random = new SplittableRandom(seed + sequence.getAndIncrement());
+            if (isRateLimited(random)) {
+                return Flux.error(tooManyRequests());
+            }
+            String prompt = promptOf(request);
+            String content = answer(prompt, maxTokensOf(request), random);
+
+            // Roughly one chunk per word, as the real API streams a token or two at a time
+            List<String> chunks = new ArrayList<>();
+            for (String word : content.split("(?<= )")) {
+                chunks.add(chunk(Map.of("content", word), null));
+            }
+            chunks.add(chunk(Map.of(), usage(prompt, content)));
+
+            Flux<String> body = tokenInterval.isZero()
+                    ? Flux.fromIterable(chunks)
+                    : Flux.fromIterable(chunks).delayElements(tokenInterval);
+            return Mono.delay(sampleLatency(random))
+                    .thenMany(body)
+                    .concatWith(Mono.just("[DONE]"));
+        });
+    }
+
+    private String chunk(Map<String, Object> delta, Map<String, Object> usage) {
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("object", "chat.completion.chunk");
+        chunk.put("model", "stub");
+        chunk.put("choices", delta.isEmpty() ? List.of() : List.of(Map.of("index", 0, "delta", delta)));
+        if (usage != null) {
+            chunk.put("usage", usage);
+        }
+        try {
+            return objectMapper.writeValueAsString(chunk);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String answer(String prompt, int maxTokens, SplittableRandom random) {
+        if (prompt.contains("JSON array")) {
+            return batchAnswer(prompt, random);
+        }
+        Matcher matcher = SYMBOL.matcher(prompt);
+        String symbol = matcher.find() ? matcher.group(1) : "This asset";
+        String text = paragraph(symbol, random) + " Educational only. Not investment advice.";
+        return promptBuilder.countTokens(text) > maxTokens ? paragraph(symbol, random) : text;
+    }
+
+    private String batchAnswer(String prompt, SplittableRandom random) {
+        List<Map<String, Object>> answers = new ArrayList<>();
+        Matcher matcher = BATCH_ITEM.matcher(prompt);
+        while (matcher.find()) {
+            answers.add(Map.of(
+                    "id", Integer.parseInt(matcher.group(1)),
+                    "answer", paragraph(matcher.group(2), random) + " Educational only. Not investment advice."));
+        }
+        try {
+            return objectMapper.writeValueAsString(answers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String paragraph(String symbol, SplittableRandom random) {
+        StringBuilder text = new StringBuilder(String.format(SENTENCES[0], symbol));
+        for (int i = 1; i < Math.max(1, answerSentences); i++) {
+            text.append(' ').append(SENTENCES[1 + random.nextInt(SENTENCES.length - 1)]);
+        }
+        return text.toString();
+    }
+
+    private Map<String, Object> usage(String prompt, String content) {
+        int promptTokens = promptBuilder.countTokens(prompt);
+        int completionTokens = promptBuilder.countTokens(content);
+        return Map.of(
+                "prompt_tokens", promptTokens,
+                "completion_tokens", completionTokens,
+                "total_tokens", promptTokens + completionTokens);
+    }
+
+    /**
+     * Log-normal sample with median p50 and 99th percentile p99
+     */
+    private Duration sampleLatency(SplittableRandom random) {
+        double median = Math.max(1, latencyP50.toMillis());
+        double sigma = Math.max(0, Math.log(Math.max(median, latencyP99.toMillis()) / median) / Z_99);
+        // Box-Muller
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return Duration.ofMillis((long) (median * Math.exp(sigma * gaussian)));
+    }
+
+    private boolean isRateLimited(SplittableRandom random) {
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            return true;
+        }
+        if (requestsPerSecond <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        synchronized (this) {
+            if (second != windowSecond) {
+                windowSecond = second;
+                windowCount = 0;
+            }
+            return ++windowCount > requestsPerSecond;
+        }
+    }
+
+    private static WebClientResponseException tooManyRequests() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        byte[] body = "{\"error\":{\"message\":\"Rate limit reached\",\"type\":\"requests\",\"code\":\"rate_limit_exceeded\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+        return WebClientResponseException.create(429, "Too Many Requests", headers, body, StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String promptOf(Map<String, Object> request) {
+        Object messages = request.get("messages");
+        StringBuilder prompt = new StringBuilder();
+        if (messages instanceof Object[]) {
+            for (Object message : (Object[]) messages) {
+                prompt.append(((Map<String, Object>) message).get("content")).append('\n');
+            }
+        } else if (messages instanceof List) {
+            for (Object message : (List<Object>) messages) {
+                prompt.append(((Map<String, Object>) message).get("content")).append('\n');
+            }
+        }
+        return prompt.toString();
+    }
+
+    private static int maxTokensOf(Map<String, Object> request) {
+        Object maxTokens = request.get("max_tokens");
+        return maxTokens instanceof Number ? ((Number) maxTokens).intValue() : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,12 @@
+package com.chimera.service.maintenance;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled database maintenance jobs in this package.
+ */
+@Configuration
+@EnableScheduling
+public class MaintenanceConfiguration {
+}
@@ -0,0 +1,70 @@
+package com.chimera.service.maintenance;
+
+import com.chimera.service.datasource.DbWorkload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Creates the range partitions of the time-series tables (see V3__partition_time_series.sql)
+ * for the days ahead, before rows arrive for them; RetentionService drops the expired ones.
+ *
+ *   equity_data     monthly partitions, look-ahead from chimera.partitions.equity-data.ahead
+ *
+ * Runs on startup and daily. Does nothing on profiles without a datasource.
+ */
+@Component
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    @Value("${chimera.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chimera.partitions.equity-data.ahead:92d}")
+    private Duration equityDataAhead;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PartitionMaintenanceService(ObjectProvider<JdbcTemplate> jdbcTemplateProvider) {
+        this.jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${chimera.partitions.maintenance-cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        if (!enabled || jdbcTemplate == null) {
+            logger.debug("Partition maintenance skipped (enabled={}, datasource={})", enabled, jdbcTemplate != null);
+            return;
+        }
+        DbWorkload.MAINTENANCE.run(() -> createAhead("equity_data", "month", equityDataAhead));
+    }
+
+    private void createAhead(String table, String granularity, Duration ahead) {
+        LocalDate today = LocalDate.now();
+        try {
+            Integer created = jdbcTemplate.queryForObject(
+                "SELECT chimera_create_partitions(?, ?, ?, ?)", Integer.class,
+                table, granularity, Date.valueOf(today), Date.valueOf(today.plusDays(ahead.toDays())));
+            if (created != null && created > 0) {
+                logger.info("Created {} partitions of {} up to {}", created, table, today.plusDays(ahead.toDays()));
+            }
+        } catch (Exception e) {
+            logger.error("Partition maintenance failed for {}: {}", table, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.chimera.service.maintenance;
+
+import com.chimera.service.datasource.DbWorkload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the data retention policy from docs/data_sources.md:
+ *
+ *   raw data             5 years   equity_data
+ *   processed features   2 years   market_daily_summary, market_daily_movers
+ *   rankings             7 days    ranking_snapshots (serving cache, well inside
+ *                                  the processed-features limit)
+ *
+ * News summaries and user queries are not stored in the database (chat history lives only in
+ * the TTL-bound cache), so they have no table policy here.
+ *
+ * Partitioned tables lose whole partitions (see PartitionMaintenanceService). Other tables are
+ * deleted in batches of batch-size rows picked by ctid, each its own short statement, with a
+ * pause between batches so row locks and WAL bursts stay small; a run stops at max-duration
+ * and continues the next day. Metrics per table: chimera.retention.rows.deleted,
+ * chimera.retention.partitions.dropped and chimera.retention.duration.
+ */
+@Component
+public class RetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionService.class);
+
+    @Value("${chimera.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chimera.retention.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${chimera.retention.batch-pause:100ms}")
+    private Duration batchPause;
+
+    @Value("${chimera.retention.max-duration:10m}")
+    private Duration maxDuration;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final List<RetentionPolicy> policies;
+
+    public RetentionService(ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
+                            ObjectProvider<MeterRegistry> meterRegistryProvider,
+                            @Value("${chimera.retention.raw-data:1826d}") Duration rawDataRetention,
+                            @Value("${chimera.retention.processed-features:730d}") Duration processedFeaturesRetention,
+                            @Value("${chimera.retention.rankings:7d}") Duration rankingsRetention) {
+        this.jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        this.policies = List.of(
+            new RetentionPolicy("equity_data", "trade_date", "month", rawDataRetention),
+            new RetentionPolicy("market_daily_movers", "trade_date", null, processedFeaturesRetention),
+            new RetentionPolicy("market_daily_summary", "trade_date", null, processedFeaturesRetention),
+            new RetentionPolicy("ranking_snapshots", "created_at", null, rankingsRetention)
+        );
+    }
+
+    @Scheduled(cron = "${chimera.retention.cron:0 30 0 * * *}")
+    public void applyRetention() {
+        DbWorkload.MAINTENANCE.run(this::applyPolicies);
+    }
+
+    private void applyPolicies() {
+        if (!enabled || jdbcTemplate == null) {
+            logger.debug("Retention skipped (enabled={}, datasource={})", enabled, jdbcTemplate != null);
+            return;
+        }
+
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        for (RetentionPolicy policy : policies) {
+            if (System.nanoTime() > deadline) {
+                logger.warn("Retention run reached its {} limit before {}; continuing next run", maxDuration, policy.table);
+                break;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                if (policy.partitionGranularity != null) {
+                    dropPartitions(policy);
+                } else {
+                    deleteInBatches(policy, deadline);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Retention failed for {}: {}", policy.table, e.getMessage());
+            } finally {
+                sample.stop(Timer.builder("chimera.retention.duration")
+                    .description("Time spent applying retention to a table")
+                    .tag("table", policy.table)
+                    .register(meterRegistry));
+            }
+        }
+    }
+
+    private void dropPartitions(RetentionPolicy policy) {
+        LocalDate cutoff = LocalDate.now().minusDays(policy.retention.toDays());
+        Integer dropped = jdbcTemplate.queryForObject("SELECT chimera_drop_partitions(?, ?, ?)", Integer.class,
+            policy.table, policy.partitionGranularity, Date.valueOf(cutoff));
+        int count = dropped != null ? dropped : 0;
+
+        Counter.builder("chimera.retention.partitions.dropped")
+            .description("Partitions dropped by retention")
+            .tag("table", policy.table)
+            .register(meterRegistry)
+            .increment(count);
+        if (count > 0) {
+            logger.info("Retention dropped {} partitions of {} before {}", count, policy.table, cutoff);
+        }
+    }
+
+    private void deleteInBatches(RetentionPolicy policy, long deadline) throws InterruptedException {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(policy.retention));
+        String sql = "DELETE FROM " + policy.table + " WHERE ctid = ANY (ARRAY(" +
+            "SELECT ctid FROM " + policy.table + " WHERE " + policy.column + " < ? LIMIT ?))";
+        Counter deletedRows = Counter.builder("chimera.retention.rows.deleted")
+            .description("Rows deleted by retention")
+            .tag("table", policy.table)
+            .register(meterRegistry);
+
+        long total = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, cutoff, batchSize);
+            deletedRows.increment(deleted);
+            total += deleted;
+            batches++;
+            if (deleted == batchSize && !batchPause.isZero()) {
+                TimeUnit.MILLISECONDS.sleep(batchPause.toMillis());
+            }
+        } while (deleted == batchSize && System.nanoTime() < deadline);
+
+        if (total > 0) {
+            logger.info("Retention deleted {} rows from {} older than {} in {} batches", total, policy.table, cutoff, batches);
+        }
+    }
+
+    private static class RetentionPolicy {
+        private final String table;
+        private final String column;
+        private final String partitionGranularity;
+        private final Duration retention;
+
+        RetentionPolicy(String table, String column, String partitionGranularity, Duration retention) {
+            this.table = table;
+            this.column = column;
+            this.partitionGranularity = partitionGranularity;
+            this.retention = retention;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+-- Baseline schema for the JPA entities (EquityData, AssetRanking).
+-- Databases created earlier by hibernate ddl-auto=update already have these tables, hence
+-- IF NOT EXISTS; Flyway owns the schema from here on and Hibernate only validates it.
+
+CREATE TABLE IF NOT EXISTS equity_data (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol                VARCHAR(20)      NOT NULL,
+    name                  VARCHAR(100)     NOT NULL,
+    trade_date            DATE             NOT NULL,
+    open_price            DOUBLE PRECISION,
+    high_price            DOUBLE PRECISION,
+    low_price             DOUBLE PRECISION,
+    close_price           DOUBLE PRECISION NOT NULL,
+    last_price            DOUBLE PRECISION,
+    prev_close            DOUBLE PRECISION,
+    total_traded_quantity BIGINT,
+    total_traded_value    DOUBLE PRECISION,
+    market_cap            DOUBLE PRECISION,
+    series                VARCHAR(50),
+    sector                VARCHAR(50),
+    created_at            TIMESTAMP(6)     NOT NULL,
+    data_source           VARCHAR(50),
+    CONSTRAINT uk_equity_data_symbol_trade_date UNIQUE (symbol, trade_date)
+);
+
+CREATE TABLE IF NOT EXISTS asset_rankings (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol                  VARCHAR(255)     NOT NULL,
+    name                    VARCHAR(255)     NOT NULL,
+    score                   DOUBLE PRECISION NOT NULL,
+    confidence              INTEGER          NOT NULL,
+    rank                    INTEGER          NOT NULL,
+    recommendation          VARCHAR(255)     NOT NULL,
+    last_price              DOUBLE PRECISION,
+    price_change            VARCHAR(255),
+    asset_type              VARCHAR(255),
+    created_at              TIMESTAMP(6)     NOT NULL,
+    updated_at              TIMESTAMP(6),
+    request_amount          DOUBLE PRECISION,
+    request_horizon_days    INTEGER,
+    request_risk_preference VARCHAR(255),
+    snapshot_version        BIGINT
+);
+
+-- Tables created by ddl-auto=update before rankings were versioned lack this column
+ALTER TABLE asset_rankings ADD COLUMN IF NOT EXISTS snapshot_version BIGINT;
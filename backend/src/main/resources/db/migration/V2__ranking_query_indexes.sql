@@ -0,0 +1,45 @@
+-- Indexes matched to the AssetRankingRepository and EquityDataRepository queries.
+-- Equality columns lead, the range column (created_at / trade_date) follows, and INCLUDE
+-- columns let aggregate and existence queries run as index-only scans.
+
+-- findCachedRankings / existsCachedRankings:
+--   request_amount = ? AND request_horizon_days = ? AND request_risk_preference = ?
+--   AND snapshot_version = ? AND created_at > ? ORDER BY rank
+-- id is included so the exists-check (a count of ids) is an index-only scan
+CREATE INDEX IF NOT EXISTS idx_asset_rankings_request_snapshot
+    ON asset_rankings (request_risk_preference, request_horizon_days, request_amount, snapshot_version, created_at)
+    INCLUDE (id);
+
+-- findRecentRankings:
+--   request_amount = ? AND request_horizon_days = ? AND request_risk_preference = ?
+--   AND asset_type = ? AND created_at > ? ORDER BY rank LIMIT ?
+CREATE INDEX IF NOT EXISTS idx_asset_rankings_request_asset_type
+    ON asset_rankings (request_risk_preference, request_horizon_days, request_amount, asset_type, created_at);
+
+-- findTopBySymbolOrderByCreatedAtDesc
+CREATE INDEX IF NOT EXISTS idx_asset_rankings_symbol_created
+    ON asset_rankings (symbol, created_at DESC);
+
+-- findByAssetTypeOrderByRankAsc
+CREATE INDEX IF NOT EXISTS idx_asset_rankings_asset_type_rank
+    ON asset_rankings (asset_type, rank);
+
+-- findTopRankings, countHighConfidenceRankings, getAverageConfidence, findByScoreRange and
+-- deleteOldRankings all filter on created_at; the included columns cover the aggregates
+CREATE INDEX IF NOT EXISTS idx_asset_rankings_created
+    ON asset_rankings (created_at)
+    INCLUDE (id, confidence, score);
+
+-- findByTradeDateOrderBySymbolAsc, findActiveSymbolsSince, countUniqueSymbols,
+-- existsByTradeDate, findLatestTradingDate, getMarketStatistics and the gainers/losers/volume
+-- queries all select by trade_date; (symbol, trade_date) is already covered by the unique key
+CREATE INDEX IF NOT EXISTS idx_equity_data_trade_date_symbol
+    ON equity_data (trade_date, symbol)
+    INCLUDE (id, close_price, prev_close, total_traded_quantity);
+
+-- findBySectorAndTradeDateOrderByClosePrice
+CREATE INDEX IF NOT EXISTS idx_equity_data_sector_trade_date
+    ON equity_data (sector, trade_date, close_price);
+
+ANALYZE asset_rankings;
+ANALYZE equity_data;
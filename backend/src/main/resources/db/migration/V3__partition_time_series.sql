@@ -0,0 +1,193 @@
+-- Range-partition the time-series tables so retention is a DROP of whole partitions and
+-- date-range queries only touch the partitions they need:
+--   equity_data     monthly partitions on trade_date
+--   asset_rankings  daily partitions on created_at
+-- Partitions are named <table>_pYYYYMM / <table>_pYYYYMMDD. A default partition catches rows
+-- outside the pre-created range. PartitionMaintenanceService keeps partitions created ahead
+-- of time and drops the ones past retention through the two functions below.
+
+-- Creates the missing partitions covering [from_date, to_date]; returns how many were created
+CREATE OR REPLACE FUNCTION chimera_create_partitions(parent_table text, granularity text, from_date date, to_date date)
+RETURNS integer AS $$
+DECLARE
+    step interval := CASE granularity WHEN 'day' THEN interval '1 day' ELSE interval '1 month' END;
+    suffix_format text := CASE granularity WHEN 'day' THEN 'YYYYMMDD' ELSE 'YYYYMM' END;
+    bound date := date_trunc(CASE granularity WHEN 'day' THEN 'day' ELSE 'month' END, from_date)::date;
+    partition_name text;
+    created integer := 0;
+BEGIN
+    WHILE bound <= to_date LOOP
+        partition_name := parent_table || '_p' || to_char(bound, suffix_format);
+        IF to_regclass(partition_name) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, parent_table, bound, (bound + step)::date);
+                created := created + 1;
+            EXCEPTION WHEN check_violation THEN
+                -- The default partition already holds rows for this range; leave them there
+                RAISE WARNING 'Partition % not created: default partition of % has rows in range', partition_name, parent_table;
+            END;
+        END IF;
+        bound := (bound + step)::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Drops the partitions that lie entirely before cutoff; returns how many were dropped
+CREATE OR REPLACE FUNCTION chimera_drop_partitions(parent_table text, granularity text, cutoff date)
+RETURNS integer AS $$
+DECLARE
+    step interval := CASE granularity WHEN 'day' THEN interval '1 day' ELSE interval '1 month' END;
+    child record;
+    suffix text;
+    lower_bound date;
+    dropped integer := 0;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = parent_table::regclass
+    LOOP
+        suffix := substring(child.relname FROM '_p([0-9]{6,8})$');
+        CONTINUE WHEN suffix IS NULL;
+        lower_bound := to_date(suffix, CASE length(suffix) WHEN 8 THEN 'YYYYMMDD' ELSE 'YYYYMM' END);
+        IF lower_bound + step <= cutoff THEN
+            EXECUTE format('DROP TABLE %I', child.relname);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- equity_data ---------------------------------------------------------------------------
+
+ALTER TABLE equity_data RENAME TO equity_data_unpartitioned;
+ALTER TABLE equity_data_unpartitioned DROP CONSTRAINT IF EXISTS equity_data_pkey;
+ALTER TABLE equity_data_unpartitioned DROP CONSTRAINT IF EXISTS uk_equity_data_symbol_trade_date;
+DROP INDEX IF EXISTS idx_equity_data_trade_date_symbol;
+DROP INDEX IF EXISTS idx_equity_data_sector_trade_date;
+
+-- The partition key must be part of every unique constraint, hence (id, trade_date)
+CREATE TABLE equity_data (
+    id                    BIGINT           NOT NULL,
+    symbol                VARCHAR(20)      NOT NULL,
+    name                  VARCHAR(100)     NOT NULL,
+    trade_date            DATE             NOT NULL,
+    open_price            DOUBLE PRECISION,
+    high_price            DOUBLE PRECISION,
+    low_price             DOUBLE PRECISION,
+    close_price           DOUBLE PRECISION NOT NULL,
+    last_price            DOUBLE PRECISION,
+    prev_close            DOUBLE PRECISION,
+    total_traded_quantity BIGINT,
+    total_traded_value    DOUBLE PRECISION,
+    market_cap            DOUBLE PRECISION,
+    series                VARCHAR(50),
+    sector                VARCHAR(50),
+    created_at            TIMESTAMP(6)     NOT NULL,
+    data_source           VARCHAR(50),
+    CONSTRAINT equity_data_pkey PRIMARY KEY (id, trade_date),
+    CONSTRAINT uk_equity_data_symbol_trade_date UNIQUE (symbol, trade_date)
+) PARTITION BY RANGE (trade_date);
+
+CREATE TABLE equity_data_default PARTITION OF equity_data DEFAULT;
+
+SELECT chimera_create_partitions('equity_data', 'month',
+       LEAST(current_date, COALESCE((SELECT min(trade_date) FROM equity_data_unpartitioned), current_date)),
+       current_date + 92);
+
+INSERT INTO equity_data (id, symbol, name, trade_date, open_price, high_price, low_price, close_price, last_price,
+                         prev_close, total_traded_quantity, total_traded_value, market_cap, series, sector,
+                         created_at, data_source)
+SELECT id, symbol, name, trade_date, open_price, high_price, low_price, close_price, last_price,
+       prev_close, total_traded_quantity, total_traded_value, market_cap, series, sector,
+       created_at, data_source
+FROM equity_data_unpartitioned;
+
+DROP TABLE equity_data_unpartitioned;
+
+-- Identity columns are not supported on partitioned tables before PostgreSQL 17; a sequence
+-- default behaves the same for Hibernate's IDENTITY strategy
+CREATE SEQUENCE equity_data_id_seq OWNED BY equity_data.id;
+SELECT setval('equity_data_id_seq', COALESCE((SELECT max(id) FROM equity_data), 0) + 1, false);
+ALTER TABLE equity_data ALTER COLUMN id SET DEFAULT nextval('equity_data_id_seq');
+
+CREATE INDEX idx_equity_data_trade_date_symbol
+    ON equity_data (trade_date, symbol)
+    INCLUDE (id, close_price, prev_close, total_traded_quantity);
+
+CREATE INDEX idx_equity_data_sector_trade_date
+    ON equity_data (sector, trade_date, close_price);
+
+-- asset_rankings ------------------------------------------------------------------------
+
+ALTER TABLE asset_rankings RENAME TO asset_rankings_unpartitioned;
+ALTER TABLE asset_rankings_unpartitioned DROP CONSTRAINT IF EXISTS asset_rankings_pkey;
+DROP INDEX IF EXISTS idx_asset_rankings_request_snapshot;
+DROP INDEX IF EXISTS idx_asset_rankings_request_asset_type;
+DROP INDEX IF EXISTS idx_asset_rankings_symbol_created;
+DROP INDEX IF EXISTS idx_asset_rankings_asset_type_rank;
+DROP INDEX IF EXISTS idx_asset_rankings_created;
+
+CREATE TABLE asset_rankings (
+    id                      BIGINT           NOT NULL,
+    symbol                  VARCHAR(255)     NOT NULL,
+    name                    VARCHAR(255)     NOT NULL,
+    score                   DOUBLE PRECISION NOT NULL,
+    confidence              INTEGER          NOT NULL,
+    rank                    INTEGER          NOT NULL,
+    recommendation          VARCHAR(255)     NOT NULL,
+    last_price              DOUBLE PRECISION,
+    price_change            VARCHAR(255),
+    asset_type              VARCHAR(255),
+    created_at              TIMESTAMP(6)     NOT NULL,
+    updated_at              TIMESTAMP(6),
+    request_amount          DOUBLE PRECISION,
+    request_horizon_days    INTEGER,
+    request_risk_preference VARCHAR(255),
+    snapshot_version        BIGINT,
+    CONSTRAINT asset_rankings_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE asset_rankings_default PARTITION OF asset_rankings DEFAULT;
+
+-- Rankings are only read for a few days; older rows are not carried over
+SELECT chimera_create_partitions('asset_rankings', 'day', current_date - 7, current_date + 7);
+
+INSERT INTO asset_rankings (id, symbol, name, score, confidence, rank, recommendation, last_price, price_change,
+                            asset_type, created_at, updated_at, request_amount, request_horizon_days,
+                            request_risk_preference, snapshot_version)
+SELECT id, symbol, name, score, confidence, rank, recommendation, last_price, price_change,
+       asset_type, created_at, updated_at, request_amount, request_horizon_days,
+       request_risk_preference, snapshot_version
+FROM asset_rankings_unpartitioned
+WHERE created_at >= current_date - 7;
+
+DROP TABLE asset_rankings_unpartitioned;
+
+CREATE SEQUENCE asset_rankings_id_seq OWNED BY asset_rankings.id;
+SELECT setval('asset_rankings_id_seq', COALESCE((SELECT max(id) FROM asset_rankings), 0) + 1, false);
+ALTER TABLE asset_rankings ALTER COLUMN id SET DEFAULT nextval('asset_rankings_id_seq');
+
+CREATE INDEX idx_asset_rankings_request_snapshot
+    ON asset_rankings (request_risk_preference, request_horizon_days, request_amount, snapshot_version, created_at)
+    INCLUDE (id);
+
+CREATE INDEX idx_asset_rankings_request_asset_type
+    ON asset_rankings (request_risk_preference, request_horizon_days, request_amount, asset_type, created_at);
+
+CREATE INDEX idx_asset_rankings_symbol_created
+    ON asset_rankings (symbol, created_at DESC);
+
+CREATE INDEX idx_asset_rankings_asset_type_rank
+    ON asset_rankings (asset_type, rank);
+
+CREATE INDEX idx_asset_rankings_created
+    ON asset_rankings (created_at)
+    INCLUDE (id, confidence, score);
+
+ANALYZE equity_data;
+ANALYZE asset_rankings;
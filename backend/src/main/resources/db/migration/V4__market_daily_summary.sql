@@ -0,0 +1,77 @@
+-- Per-day market summary, refreshed once per ingestion snapshot by MarketSummaryService so the
+-- market-overview endpoint reads a handful of rows instead of rescanning a trading day.
+--   market_daily_summary  one row per trade date: breadth and averages
+--   market_daily_movers   top N gainers, losers and most traded symbols per trade date
+
+CREATE TABLE IF NOT EXISTS market_daily_summary (
+    trade_date   DATE             NOT NULL PRIMARY KEY,
+    symbol_count INTEGER          NOT NULL,
+    advancers    INTEGER          NOT NULL,
+    decliners    INTEGER          NOT NULL,
+    avg_close    DOUBLE PRECISION,
+    avg_volume   DOUBLE PRECISION,
+    total_volume BIGINT,
+    refreshed_at TIMESTAMP(6)     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS market_daily_movers (
+    trade_date            DATE             NOT NULL,
+    category              VARCHAR(10)      NOT NULL, -- GAINER | LOSER | VOLUME
+    position              INTEGER          NOT NULL,
+    symbol                VARCHAR(20)      NOT NULL,
+    name                  VARCHAR(100)     NOT NULL,
+    close_price           DOUBLE PRECISION NOT NULL,
+    prev_close            DOUBLE PRECISION,
+    change_percent        DOUBLE PRECISION,
+    total_traded_quantity BIGINT,
+    CONSTRAINT market_daily_movers_pkey PRIMARY KEY (trade_date, category, position)
+);
+
+-- Recomputes the summary rows of one trade date from equity_data; returns the symbol count
+CREATE OR REPLACE FUNCTION chimera_refresh_market_summary(day date, top_n integer)
+RETURNS integer AS $$
+DECLARE
+    symbols integer;
+BEGIN
+    DELETE FROM market_daily_movers WHERE trade_date = day;
+    DELETE FROM market_daily_summary WHERE trade_date = day;
+
+    INSERT INTO market_daily_summary (trade_date, symbol_count, advancers, decliners, avg_close, avg_volume,
+                                      total_volume, refreshed_at)
+    SELECT day, count(*), count(*) FILTER (WHERE close_price > prev_close), count(*) FILTER (WHERE close_price < prev_close),
+           avg(close_price), avg(total_traded_quantity), sum(total_traded_quantity), now()
+    FROM equity_data
+    WHERE trade_date = day
+    HAVING count(*) > 0
+    RETURNING symbol_count INTO symbols;
+
+    IF symbols IS NULL THEN
+        RETURN 0;
+    END IF;
+
+    INSERT INTO market_daily_movers (trade_date, category, position, symbol, name, close_price, prev_close,
+                                     change_percent, total_traded_quantity)
+    WITH day_rows AS MATERIALIZED (
+        SELECT symbol, name, close_price, prev_close, total_traded_quantity,
+               CASE WHEN prev_close > 0 THEN (close_price - prev_close) * 100 / prev_close END AS change_percent
+        FROM equity_data
+        WHERE trade_date = day
+    ), ranked AS (
+        SELECT day_rows.*,
+               row_number() OVER (ORDER BY change_percent DESC NULLS LAST, symbol) AS gain_position,
+               row_number() OVER (ORDER BY change_percent ASC NULLS LAST, symbol) AS loss_position,
+               row_number() OVER (ORDER BY total_traded_quantity DESC NULLS LAST, symbol) AS volume_position
+        FROM day_rows
+    )
+    SELECT day, 'GAINER', gain_position, symbol, name, close_price, prev_close, change_percent, total_traded_quantity
+    FROM ranked WHERE gain_position <= top_n AND change_percent > 0
+    UNION ALL
+    SELECT day, 'LOSER', loss_position, symbol, name, close_price, prev_close, change_percent, total_traded_quantity
+    FROM ranked WHERE loss_position <= top_n AND change_percent < 0
+    UNION ALL
+    SELECT day, 'VOLUME', volume_position, symbol, name, close_price, prev_close, change_percent, total_traded_quantity
+    FROM ranked WHERE volume_position <= top_n AND total_traded_quantity IS NOT NULL;
+
+    RETURN symbols;
+END;
+$$ LANGUAGE plpgsql;
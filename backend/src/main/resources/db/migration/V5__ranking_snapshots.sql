@@ -0,0 +1,17 @@
+-- Compact rankings: one row per (ingestion snapshot, risk profile, asset type) holding the full
+-- ranking as parallel arrays ordered by score. Names, prices and changes come from the
+-- ingestion snapshot, so a ranking request reads one row and writes nothing.
+-- asset_rankings is no longer written; its partitions age out through partition maintenance.
+
+CREATE TABLE IF NOT EXISTS ranking_snapshots (
+    snapshot_version BIGINT      NOT NULL,
+    risk_preference  VARCHAR(20) NOT NULL,
+    asset_type       VARCHAR(20) NOT NULL,
+    symbols          TEXT[]      NOT NULL,
+    scores           REAL[]      NOT NULL,
+    confidences      SMALLINT[]  NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    CONSTRAINT ranking_snapshots_pkey PRIMARY KEY (snapshot_version, risk_preference, asset_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ranking_snapshots_created ON ranking_snapshots (created_at);
@@ -0,0 +1,40 @@
+-- Asset feature embeddings for "similar assets" queries (see AssetSimilarityService). Each row
+-- holds one symbol's vector of scaled rolling features (returns, volatility, drawdown, size) and
+-- hashed sector, rebuilt once per ingestion snapshot. Nearest neighbours use cosine distance
+-- through an HNSW index (IVFFlat on pgvector releases before 0.5).
+--
+-- Requires the pgvector extension (the pgvector/pgvector images in docker-compose.yml). On a
+-- server without it the table is not created and the service keeps vectors in memory only.
+-- The vector type and operator class are schema-qualified so the migration also applies when
+-- the extension lives outside the search_path (scripts/check-query-plans.sh scratch schemas).
+
+DO $$
+DECLARE
+    ext_schema text;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'vector') THEN
+        RAISE NOTICE 'pgvector is not available; asset_embeddings not created';
+        RETURN;
+    END IF;
+
+    CREATE EXTENSION IF NOT EXISTS vector;
+    SELECT extnamespace::regnamespace::text INTO ext_schema FROM pg_extension WHERE extname = 'vector';
+
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS asset_embeddings (
+             symbol           VARCHAR(20)  NOT NULL PRIMARY KEY,
+             sector           VARCHAR(50),
+             embedding        %s.vector(16) NOT NULL,
+             snapshot_version BIGINT       NOT NULL,
+             updated_at       TIMESTAMP(6) NOT NULL
+         )', ext_schema);
+
+    BEGIN
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_asset_embeddings_embedding '
+                       'ON asset_embeddings USING hnsw (embedding %s.vector_cosine_ops)', ext_schema);
+    EXCEPTION WHEN undefined_object THEN
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_asset_embeddings_embedding '
+                       'ON asset_embeddings USING ivfflat (embedding %s.vector_cosine_ops) WITH (lists = 50)', ext_schema);
+    END;
+END;
+$$;
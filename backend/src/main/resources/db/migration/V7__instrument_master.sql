@@ -0,0 +1,19 @@
+-- Instrument master: slowly changing reference data (name, sector, series) per NSE symbol or
+-- AMFI scheme code, read through the Hibernate second-level cache (model.Instrument).
+-- InstrumentMasterService upserts it from each ingestion snapshot and equity_data.
+
+CREATE TABLE IF NOT EXISTS instruments (
+    symbol     VARCHAR(20)  NOT NULL PRIMARY KEY,
+    asset_type VARCHAR(20)  NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    sector     VARCHAR(50),
+    series     VARCHAR(50),
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+-- Seed equities from their most recent equity_data row
+INSERT INTO instruments (symbol, asset_type, name, sector, series, updated_at)
+SELECT DISTINCT ON (symbol) symbol, 'EQUITY', name, sector, series, now()
+FROM equity_data
+ORDER BY symbol, trade_date DESC
+ON CONFLICT (symbol) DO NOTHING;
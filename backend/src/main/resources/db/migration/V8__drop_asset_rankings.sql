@@ -0,0 +1,5 @@
+-- asset_rankings held one row per ranked asset per request. Rankings are now stored once per
+-- snapshot and risk profile in ranking_snapshots (V5__ranking_snapshots.sql) and nothing reads
+-- or writes asset_rankings, so the table goes along with its partitions and indexes.
+
+DROP TABLE IF EXISTS asset_rankings CASCADE;
@@ -0,0 +1,42 @@
+package com.chimera.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CacheBackendConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withUserConfiguration(CacheBackendConfiguration.class);
+
+    @Test
+    void autoSelectsRedisWhenAConnectionFactoryIsPresent() {
+        contextRunner
+            .withBean(RedisConnectionFactory.class, () -> mock(RedisConnectionFactory.class))
+            .run(context -> assertThat(context.getBean(CacheBackend.class)).isInstanceOf(RedisCacheBackend.class));
+    }
+
+    @Test
+    void redisIsAcceptedWhenAConnectionFactoryIsPresent() {
+        contextRunner
+            .withPropertyValues("chimera.cache.backend=redis")
+            .withBean(RedisConnectionFactory.class, () -> mock(RedisConnectionFactory.class))
+            .run(context -> assertThat(context.getBean(CacheBackend.class)).isInstanceOf(RedisCacheBackend.class));
+    }
+
+    @Test
+    void autoFallsBackToMemoryWithoutAConnectionFactory() {
+        contextRunner
+            .run(context -> assertThat(context.getBean(CacheBackend.class)).isInstanceOf(InMemoryCacheBackend.class));
+    }
+
+    @Test
+    void redisFailsStartupWithoutAConnectionFactory() {
+        contextRunner
+            .withPropertyValues("chimera.cache.backend=redis")
+            .run(context -> assertThat(context).hasFailed());
+    }
+}
@@ -0,0 +1,150 @@
+#!/bin/bash
+# Offline load-test harness for the chat path
+#
+# Starts the backend jar with the loadtest profile (stub LLM provider, see
+# application-loadtest.yml), so the full chat stack - caches, budget accounting, call guard,
+# batching - runs end to end without calling OpenAI. For each concurrency level it runs a
+# closed loop of requests and reports:
+#   - throughput (requests/s over the wall-clock duration of the level)
+#   - p50/p95/p99/p99.9 latency (total time; for /api/chat/stream until the done event)
+#   - HTTP errors and the share of answers served from the fallback path
+#
+# Usage: scripts/chat-load-test.sh [chat|stream|both]
+# Environment overrides:
+#   JAR, JAVA, BASE_PROFILE, PORT, LEVELS, REQUESTS_PER_LEVEL, CACHE (miss|hit), REQUEST_TIMEOUT
+#   STUB_LATENCY_P50, STUB_LATENCY_P99, STUB_TOKEN_INTERVAL, STUB_RPS_LIMIT, STUB_ERROR_RATE, STUB_SEED
+# Build the jar first with: cd backend && gradle bootJar
+
+set -e
+
+TARGET=${1:-both}
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR=${JAR:-"$SCRIPT_DIR/../backend/build/libs/chimera-backend.jar"}
+JAVA=${JAVA:-java}
+BASE_PROFILE=${BASE_PROFILE:-railway}
+PORT=${PORT:-18081}
+LEVELS=${LEVELS:-"10 50 100 200"}
+REQUESTS_PER_LEVEL=${REQUESTS_PER_LEVEL:-1000}
+CACHE=${CACHE:-miss}
+REQUEST_TIMEOUT=${REQUEST_TIMEOUT:-30}
+BASE_URL="http://localhost:$PORT"
+WORK_DIR=$(mktemp -d)
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+# The railway profile already excludes the datasource, JPA and Redis; the default Spring
+# Security setup is excluded as well so POSTs are not rejected without a CSRF token
+EXCLUDES="org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration"
+
+APP_PID=""
+# Request numbers continue across levels and targets so every cache-miss request is new
+NEXT_REQUEST=1
+
+cleanup() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+    fi
+    rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+start_app() {
+    local log="$WORK_DIR/app.log"
+
+    "$JAVA" --enable-preview -jar "$JAR" \
+        --spring.profiles.active="$BASE_PROFILE,loadtest" \
+        --spring.autoconfigure.exclude="$EXCLUDES" \
+        --server.port="$PORT" > "$log" 2>&1 &
+    APP_PID=$!
+
+    echo -n "Waiting for backend (stub LLM provider)... "
+    for _ in $(seq 1 60); do
+        if curl -s -o /dev/null "$BASE_URL/"; then
+            echo -e "${GREEN}✓${NC}"
+            return 0
+        fi
+        sleep 1
+    done
+    echo -e "${RED}✗${NC} did not start, see $log"
+    tail -n 20 "$log"
+    exit 1
+}
+
+# Request body for request number $1 - unique symbols defeat the exact and semantic caches
+chat_body() {
+    local n=$1 symbol=TCS
+    if [ "$CACHE" = "miss" ]; then
+        symbol="LOAD$n"
+    fi
+    printf '{"assetId":"%s","question":"Why is %s ranked high?"}' "$symbol" "$symbol"
+}
+export -f chat_body
+export CACHE
+
+# Prints one "http_code seconds fallback(0|1)" line per request
+fire() {
+    local path=$1 level=$2 offset=$3
+    seq "$offset" $((offset + REQUESTS_PER_LEVEL - 1)) | xargs -P "$level" -I{} bash -c '
+        out=$(curl -s -N -m '"$REQUEST_TIMEOUT"' -w "\n%{http_code} %{time_total}" \
+            -H "Content-Type: application/json" -X POST -d "$(chat_body {})" "'"$BASE_URL$path"'")
+        status=$(printf "%s" "$out" | tail -n 1)
+        case "$out" in *"\"fallback\""*) fb=1 ;; *) fb=0 ;; esac
+        echo "$status $fb"'
+}
+
+report() {
+    local label=$1 file=$2 millis=$3
+    sort -k2 -n "$file" | awk -v label="$label" -v secs="$(awk -v ms="$millis" 'BEGIN { print ms / 1000 }')" '
+        function pct(q,   i) { i = int(NR * q); if (i < 1) i = 1; return times[i] * 1000 }
+        { times[NR] = $2; if ($1 != 200) errors++; fallbacks += $3 }
+        END {
+            printf "  %-22s %6.1f req/s  p50 %7.1f  p95 %7.1f  p99 %7.1f  p99.9 %7.1f ms  errors %d  fallback %.1f%%\n",
+                label, NR / (secs > 0 ? secs : 1), pct(0.50), pct(0.95), pct(0.99), pct(0.999), errors, fallbacks * 100 / NR
+        }'
+}
+
+run_target() {
+    local name=$1 path=$2
+    echo ""
+    echo "=== $path (cache $CACHE) ==="
+    for level in $LEVELS; do
+        local started ended
+        started=$(date +%s%3N)
+        fire "$path" "$level" "$NEXT_REQUEST" > "$WORK_DIR/$name-$level.txt"
+        ended=$(date +%s%3N)
+        report "$level concurrent" "$WORK_DIR/$name-$level.txt" $((ended - started))
+        NEXT_REQUEST=$((NEXT_REQUEST + REQUESTS_PER_LEVEL))
+    done
+}
+
+if [ ! -f "$JAR" ]; then
+    echo -e "${RED}✗${NC} $JAR not found - run 'gradle bootJar' in backend/ first"
+    exit 1
+fi
+
+echo "Stub latency p50 ${STUB_LATENCY_P50:-800ms}, p99 ${STUB_LATENCY_P99:-3s}, rate limit ${STUB_RPS_LIMIT:-0} req/s, 429 rate ${STUB_ERROR_RATE:-0.0}"
+export STUB_LATENCY_P50 STUB_LATENCY_P99 STUB_TOKEN_INTERVAL STUB_RPS_LIMIT STUB_ERROR_RATE STUB_SEED
+
+start_app
+
+case "$TARGET" in
+    chat)   run_target chat /api/chat ;;
+    stream) run_target stream /api/chat/stream ;;
+    both)   run_target chat /api/chat
+            run_target stream /api/chat/stream ;;
+    *) echo "Usage: $0 [chat|stream|both]"; exit 1 ;;
+esac
+
+if grep -q "circuit breaker" "$WORK_DIR/app.log"; then
+    echo -e "  ${YELLOW}⚠${NC} circuit breaker changed state during the run:"
+    grep "circuit breaker" "$WORK_DIR/app.log" | tail -n 5
+fi
@@ -0,0 +1,134 @@
+#!/bin/bash
+# Query-plan regression check for the repository queries
+#
+# Applies the Flyway migrations to a scratch schema, seeds realistic volumes (a year of
+# ranking snapshots and equity prices), runs EXPLAIN on the SQL behind each
+# RankingSnapshotStore / EquityDataRepository query and fails if a query stops using its index
+# (or falls back to a sequential scan), or if a date-range query stops pruning partitions. The
+# scratch schema is dropped afterwards.
+#
+# Usage: scripts/check-query-plans.sh
+# Environment overrides:
+#   PGHOST, PGPORT, PGUSER, PGPASSWORD, PGDATABASE (defaults match docker-compose.yml)
+#   SNAPSHOT_ROWS, EQUITY_SYMBOLS, EQUITY_DAYS
+# Start the database first with: docker compose up -d postgres
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+MIGRATIONS="$SCRIPT_DIR/../backend/src/main/resources/db/migration"
+export PGHOST=${PGHOST:-localhost}
+export PGPORT=${PGPORT:-5432}
+export PGUSER=${PGUSER:-chimera}
+export PGPASSWORD=${PGPASSWORD:-chimera_dev_password}
+export PGDATABASE=${PGDATABASE:-chimera_local}
+SNAPSHOT_ROWS=${SNAPSHOT_ROWS:-50000}
+EQUITY_SYMBOLS=${EQUITY_SYMBOLS:-2000}
+EQUITY_DAYS=${EQUITY_DAYS:-250}
+SCHEMA=plan_check_$$
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+NC='\033[0m' # No Color
+
+FAILURES=0
+
+sql() {
+    psql -X -q -v ON_ERROR_STOP=1 -At -c "SET search_path TO $SCHEMA; $1"
+}
+
+cleanup() {
+    psql -X -q -c "DROP SCHEMA IF EXISTS $SCHEMA CASCADE" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+# Parent index of each index in a plan - partitions carry generated index names
+plan_indexes() {
+    echo "$1" | grep -oE "(using|Bitmap Index Scan on) [a-z0-9_]+" | awk '{ print $NF }' | sort -u | while read -r index; do
+        sql "SELECT COALESCE(pg_partition_root('$index'::regclass)::text, '$index')"
+    done
+}
+
+# Asserts that the plan of a query uses the expected index and no sequential scan (the empty
+# default partitions are always scanned and are ignored)
+expect_index() {
+    local name=$1 index=$2 query=$3
+    local plan
+    plan=$(sql "EXPLAIN $query")
+    if plan_indexes "$plan" | grep -qx "$index" && ! echo "$plan" | grep "Seq Scan" | grep -qv "_default"; then
+        echo -e "${GREEN}✓${NC} $name uses $index"
+    else
+        echo -e "${RED}✗${NC} $name does not use $index:"
+        echo "$plan" | sed 's/^/    /'
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+# Asserts that a date-range query scans at most max partitions of the table
+expect_pruned() {
+    local name=$1 table=$2 max=$3 query=$4
+    local scanned
+    scanned=$(sql "EXPLAIN $query" | grep -oE " on ${table}_p[0-9]+" | sort -u | wc -l)
+    if [ "$scanned" -le "$max" ]; then
+        echo -e "${GREEN}✓${NC} $name scans $scanned partition(s) of $table"
+    else
+        echo -e "${RED}✗${NC} $name scans $scanned partitions of $table (expected at most $max)"
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+if ! command -v psql > /dev/null; then
+    echo -e "${RED}✗${NC} psql not found"
+    exit 1
+fi
+
+echo "Applying migrations to scratch schema $SCHEMA on $PGHOST:$PGPORT/$PGDATABASE..."
+psql -X -q -v ON_ERROR_STOP=1 -c "CREATE SCHEMA $SCHEMA" > /dev/null
+for migration in $(ls "$MIGRATIONS"/V*__*.sql | sort -V); do
+    (echo "SET search_path TO $SCHEMA;"; cat "$migration") | psql -X -q -v ON_ERROR_STOP=1 > /dev/null
+done
+
+# Partitions for the whole seeded range, so no rows land in the default partitions
+sql "SELECT chimera_create_partitions('equity_data', 'month', current_date - $EQUITY_DAYS, current_date)" > /dev/null
+
+echo "Seeding $SNAPSHOT_ROWS ranking snapshots and $((EQUITY_SYMBOLS * EQUITY_DAYS)) equity rows..."
+sql "INSERT INTO ranking_snapshots (snapshot_version, risk_preference, asset_type, symbols, scores, confidences, created_at)
+     SELECT i / 6, (ARRAY['CONSERVATIVE','MODERATE','AGGRESSIVE'])[1 + i % 3], (ARRAY['EQUITY','MUTUAL_FUND'])[1 + (i / 3) % 2],
+            ARRAY['SYM1','SYM2','SYM3'], ARRAY[0.9, 0.8, 0.7]::real[], ARRAY[90, 80, 70]::smallint[],
+            now() - ((i % 365) || ' days')::interval
+     FROM generate_series(0, $SNAPSHOT_ROWS - 1) AS i"
+sql "INSERT INTO equity_data (symbol, name, trade_date, close_price, prev_close, total_traded_quantity, sector, created_at)
+     SELECT 'SYM' || s, 'Asset ' || s, current_date - d, 100 + random() * 900, 100 + random() * 900,
+            (random() * 1000000)::bigint, (ARRAY['IT','BANK','FMCG','AUTO','PHARMA'])[1 + s % 5], now()
+     FROM generate_series(1, $EQUITY_SYMBOLS) AS s, generate_series(0, $EQUITY_DAYS - 1) AS d"
+sql "ANALYZE ranking_snapshots; ANALYZE equity_data"
+
+SNAPSHOT=$(sql "SELECT max(snapshot_version) FROM ranking_snapshots")
+
+echo ""
+echo "=== RankingSnapshotStore ==="
+expect_index load ranking_snapshots_pkey \
+    "SELECT symbols, scores, confidences FROM ranking_snapshots WHERE snapshot_version = $SNAPSHOT AND risk_preference = 'MODERATE' AND asset_type = 'EQUITY'"
+
+echo ""
+echo "=== EquityDataRepository ==="
+expect_index findBySymbolAndDateRange uk_equity_data_symbol_trade_date \
+    "SELECT * FROM equity_data WHERE symbol = 'SYM42' AND trade_date BETWEEN current_date - 30 AND current_date ORDER BY trade_date DESC"
+expect_index findByTradeDateOrderBySymbolAsc idx_equity_data_trade_date_symbol \
+    "SELECT * FROM equity_data WHERE trade_date = current_date - 1 ORDER BY symbol"
+expect_index findActiveSymbolsSince idx_equity_data_trade_date_symbol \
+    "SELECT DISTINCT symbol FROM equity_data WHERE trade_date >= current_date - 5 ORDER BY symbol"
+expect_index getMarketStatistics idx_equity_data_trade_date_symbol \
+    "SELECT count(id), avg(close_price), avg(total_traded_quantity) FROM equity_data WHERE trade_date = current_date - 1"
+expect_index findBySectorAndTradeDateOrderByClosePrice idx_equity_data_sector_trade_date \
+    "SELECT * FROM equity_data WHERE sector = 'IT' AND trade_date = current_date - 1 ORDER BY close_price"
+expect_pruned findBySymbolAndDateRange equity_data 2 \
+    "SELECT * FROM equity_data WHERE symbol = 'SYM42' AND trade_date BETWEEN current_date - 30 AND current_date ORDER BY trade_date DESC"
+
+echo ""
+if [ "$FAILURES" -gt 0 ]; then
+    echo -e "${RED}✗${NC} $FAILURES query plan regression(s)"
+    exit 1
+fi
+echo -e "${GREEN}✓${NC} All repository queries use their indexes"
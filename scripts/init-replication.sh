@@ -0,0 +1,4 @@
+#!/bin/sh
+# Allows streaming replication connections, used by the postgres-replica service in
+# docker-compose.yml. Runs only when the postgres volume is first initialised.
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
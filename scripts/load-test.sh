@@ -0,0 +1,172 @@
+#!/bin/bash
+# Load-test harness comparing platform vs virtual thread execution modes
+#
+# Starts the backend jar once per mode, then measures:
+#   - p50/p99 latency of POST /api/rank at a fixed concurrency
+#   - the highest /api/chat concurrency level served with >= 99% success
+#   - virtual-thread pinning events reported by -Djdk.tracePinnedThreads
+#
+# Usage: scripts/load-test.sh [platform|virtual|both]
+# Environment overrides:
+#   JAR, PROFILE, PORT, RANK_REQUESTS, RANK_CONCURRENCY, CHAT_LEVELS, CHAT_TIMEOUT
+# Build the jar first with: cd backend && gradle bootJar
+
+set -e
+
+MODE=${1:-both}
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR=${JAR:-"$SCRIPT_DIR/../backend/build/libs/chimera-backend.jar"}
+PROFILE=${PROFILE:-railway}
+PORT=${PORT:-18080}
+RANK_REQUESTS=${RANK_REQUESTS:-2000}
+RANK_CONCURRENCY=${RANK_CONCURRENCY:-50}
+CHAT_LEVELS=${CHAT_LEVELS:-"50 100 200 400 800"}
+CHAT_TIMEOUT=${CHAT_TIMEOUT:-30}
+BASE_URL="http://localhost:$PORT"
+WORK_DIR=$(mktemp -d)
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+RANK_BODY='{"amountInr":100000,"horizonDays":30,"riskPreference":"MODERATE","assetType":"EQUITY","maxResults":10}'
+CHAT_BODY='{"assetId":"TCS","question":"Why is TCS ranked high?"}'
+
+# The railway profile already excludes the datasource, JPA and Redis; the default Spring
+# Security setup is excluded as well so POSTs are not rejected without a CSRF token
+EXCLUDES="org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration"
+EXCLUDES="$EXCLUDES,org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration"
+
+APP_PID=""
+
+cleanup() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+    fi
+    rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+start_app() {
+    local virtual=$1
+    local log="$WORK_DIR/app-$virtual.log"
+
+    java --enable-preview -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --spring.profiles.active="$PROFILE" \
+        --spring.autoconfigure.exclude="$EXCLUDES" \
+        --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$virtual" > "$log" 2>&1 &
+    APP_PID=$!
+
+    echo -n "Waiting for backend (virtual threads: $virtual)... "
+    for _ in $(seq 1 60); do
+        if curl -s -o /dev/null "$BASE_URL/"; then
+            echo -e "${GREEN}✓${NC}"
+            return 0
+        fi
+        sleep 1
+    done
+    echo -e "${RED}✗${NC} did not start, see $log"
+    tail -n 20 "$log"
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=""
+}
+
+# Prints one "http_code time_total" line per request
+fire() {
+    local path=$1 body=$2 count=$3 concurrency=$4
+    seq 1 "$count" | xargs -P "$concurrency" -I{} \
+        curl -s -o /dev/null -m "$CHAT_TIMEOUT" -w '%{http_code} %{time_total}\n' \
+            -H 'Content-Type: application/json' -X POST -d "$body" "$BASE_URL$path"
+}
+
+# Fails the run unless a single request to the path succeeds, so latencies are never
+# measured on error responses
+expect_2xx() {
+    local path=$1 body=$2
+    local code
+    code=$(fire "$path" "$body" 1 1 | awk '{ print $1 }')
+    if [[ "$code" != 2* ]]; then
+        echo -e "  ${RED}✗${NC} $path answered $code instead of 2xx"
+        tail -n 20 "$WORK_DIR"/app-*.log
+        exit 1
+    fi
+}
+
+measure_rank() {
+    expect_2xx /api/rank "$RANK_BODY"
+    # Prime the cache so both modes are compared on the serving path, not the first computation
+    fire /api/rank "$RANK_BODY" 20 5 > /dev/null
+    fire /api/rank "$RANK_BODY" "$RANK_REQUESTS" "$RANK_CONCURRENCY" > "$WORK_DIR/rank.txt"
+    # Latency percentiles cover successful (2xx) responses only
+    awk '$1 ~ /^2/' "$WORK_DIR/rank.txt" | sort -k2 -n | awk -v total="$(wc -l < "$WORK_DIR/rank.txt")" '
+        { times[NR] = $2 }
+        END {
+            if (NR == 0) {
+                printf "  /api/rank: %d requests, no 2xx responses\n", total
+                exit
+            }
+            p50 = times[int(NR * 0.50) > 0 ? int(NR * 0.50) : 1]
+            p99 = times[int(NR * 0.99) > 0 ? int(NR * 0.99) : 1]
+            printf "  /api/rank: %d requests, p50 %.1f ms, p99 %.1f ms (2xx only), errors %d\n", total, p50 * 1000, p99 * 1000, total - NR
+        }'
+}
+
+measure_chat() {
+    local best=0
+    expect_2xx /api/chat "$CHAT_BODY"
+    for level in $CHAT_LEVELS; do
+        fire /api/chat "$CHAT_BODY" "$level" "$level" > "$WORK_DIR/chat.txt"
+        local ok
+        ok=$(awk '$1 ~ /^2/ { ok++ } END { print ok + 0 }' "$WORK_DIR/chat.txt")
+        echo "  /api/chat: $level concurrent -> $ok ok"
+        if [ $((ok * 100)) -ge $((level * 99)) ]; then
+            best=$level
+        else
+            break
+        fi
+    done
+    echo "  /api/chat: max concurrency with >= 99% success: $best"
+}
+
+run_mode() {
+    local virtual=$1
+    echo ""
+    echo "=== Execution mode: $([ "$virtual" = true ] && echo virtual || echo platform) threads ==="
+    start_app "$virtual"
+    measure_rank
+    measure_chat
+    local pinned
+    pinned=$(grep -c "<== monitors" "$WORK_DIR/app-$virtual.log" || true)
+    if [ "$virtual" = true ] && [ "$pinned" -gt 0 ]; then
+        echo -e "  ${YELLOW}⚠${NC} $pinned pinned-thread stack traces (see jdk.tracePinnedThreads output)"
+    fi
+    stop_app
+}
+
+if [ ! -f "$JAR" ]; then
+    echo -e "${RED}✗${NC} $JAR not found - run 'gradle bootJar' in backend/ first"
+    exit 1
+fi
+
+if [ -z "$OPENAI_API_KEY" ]; then
+    echo -e "${YELLOW}⚠${NC} OPENAI_API_KEY not set - /api/chat will exercise the fallback path only"
+fi
+
+case "$MODE" in
+    platform) run_mode false ;;
+    virtual)  run_mode true ;;
+    both)     run_mode false; run_mode true ;;
+    *) echo "Usage: $0 [platform|virtual|both]"; exit 1 ;;
+esac